@@ -0,0 +1,66 @@
+package dk.dtu.compute.se.pisd.designpatterns.observer;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the notification of the observers of a {@link Subject} for
+ * different numbers of observers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SubjectBenchmark {
+
+    private static class BenchmarkSubject extends Subject {
+
+        void change() {
+            notifyChange();
+        }
+
+    }
+
+    private static class BenchmarkObserver implements Observer {
+
+        private final Blackhole blackhole;
+
+        BenchmarkObserver(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void update(Subject subject) {
+            blackhole.consume(subject);
+        }
+
+    }
+
+    @Param({"0", "1", "10", "100"})
+    public int observers;
+
+    private BenchmarkSubject subject;
+
+    // the subject keeps its observers in a weak set only, so they need to
+    // be kept alive here
+    private BenchmarkObserver[] attached;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        subject = new BenchmarkSubject();
+        attached = new BenchmarkObserver[observers];
+        for (int i = 0; i < observers; i++) {
+            attached[i] = new BenchmarkObserver(blackhole);
+            subject.attach(attached[i]);
+        }
+    }
+
+    @Benchmark
+    public void notifyChange() {
+        subject.change();
+    }
+
+}
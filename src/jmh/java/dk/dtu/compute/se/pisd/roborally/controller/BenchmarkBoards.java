@@ -0,0 +1,59 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.*;
+
+import java.util.Random;
+
+/**
+ * Creates boards of different sizes for the benchmarks. The boards have
+ * a fixed pseudo-random layout of walls, conveyor belts and checkpoints
+ * (roughly as dense as on the boards of the game), so that the results of
+ * different runs are comparable.
+ */
+public class BenchmarkBoards {
+
+    private static final long SEED = 4711;
+
+    /**
+     * Creates a board of the given size with the given number of players.
+     *
+     * @param size the size of the board in the format <code>WIDTHxHEIGHT</code>
+     * @param noPlayers the number of players
+     * @return the new board
+     */
+    public static Board create(String size, int noPlayers) {
+        String[] dimensions = size.split("x");
+        int width = Integer.parseInt(dimensions[0]);
+        int height = Integer.parseInt(dimensions[1]);
+
+        Board board = new Board(width, height, "benchmark");
+        Random random = new Random(SEED);
+        Heading[] headings = Heading.values();
+        int checkpoint = 1;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                Space space = board.getSpace(x, y);
+                int kind = random.nextInt(20);
+                if (kind < 2) {
+                    space.getWalls().add(headings[random.nextInt(headings.length)]);
+                } else if (kind < 4) {
+                    ConveyorBelt conveyorBelt = new ConveyorBelt(headings[random.nextInt(headings.length)]);
+                    space.getActions().add(conveyorBelt);
+                } else if (kind == 4 && checkpoint <= 6) {
+                    space.getActions().add(new Checkpoint(checkpoint++));
+                }
+            }
+        }
+        board.updateLayout();
+
+        for (int i = 0; i < noPlayers; i++) {
+            Player player = new Player(board, "red", "Player " + i);
+            board.addPlayer(player);
+            player.setSpace(board.getSpace((2 * i) % width, i % height));
+            player.setHeading(headings[i % headings.length]);
+        }
+        board.setCurrentPlayer(board.getPlayer(0));
+        return board;
+    }
+
+}
@@ -0,0 +1,81 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the hot paths of the {@link GameController}: executing the
+ * registers of all players, pushing robots, and activating the conveyor
+ * belts, for different sizes of boards and numbers of players.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GameControllerBenchmark {
+
+    private static final Command[] PROGRAM = {
+            Command.FORWARD, Command.RIGHT, Command.FAST_FORWARD, Command.LEFT, Command.BACKWARD };
+
+    @Param({"8x8", "15x8", "100x100"})
+    public String size;
+
+    @Param({"2", "4", "6"})
+    public int players;
+
+    private Board board;
+
+    private GameController gameController;
+
+    private CommandCard[] cards;
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkBoards.create(size, players);
+        gameController = new GameController(board);
+        cards = new CommandCard[PROGRAM.length];
+        for (int i = 0; i < PROGRAM.length; i++) {
+            cards[i] = CommandCard.of(PROGRAM[i]);
+        }
+    }
+
+    /**
+     * Executes all registers of all players by {@link GameController#executeNextStep(boolean)},
+     * including the field actions at the end of the activation phase.
+     */
+    @Benchmark
+    public Phase executeRegisters() {
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Player player = board.getPlayer(i);
+            for (int j = 0; j < Player.NO_REGISTERS; j++) {
+                player.getProgramField(j).setCard(cards[j]);
+            }
+        }
+        gameController.finishProgrammingPhase();
+        while (board.getPhase() == Phase.ACTIVATION) {
+            gameController.executeNextStep(false);
+        }
+        return board.getPhase();
+    }
+
+    /**
+     * Moves the current player forward, which pushes other robots if necessary.
+     */
+    @Benchmark
+    public Space pushRobots() {
+        Player player = board.getCurrentPlayer();
+        gameController.moveForward(player);
+        board.setCurrentPlayer(board.getNextPlayer());
+        return player.getSpace();
+    }
+
+    @Benchmark
+    public Board activateConveyorBelts() {
+        gameController.activateConveyorBelts();
+        return board;
+    }
+
+}
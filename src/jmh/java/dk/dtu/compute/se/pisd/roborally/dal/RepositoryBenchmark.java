@@ -0,0 +1,82 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the number of game saves per second for different numbers of
+ * players. By default, the benchmark runs against an embedded H2 database;
+ * a local MySQL database can be used by passing its JDBC URL and credentials,
+ * for example:
+ *
+ * <pre>
+ *   -Djmh.args="RepositoryBenchmark -p url=jdbc:mysql://localhost:3306/roborally?rewriteBatchedStatements=true -p user=... -p password=..."
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RepositoryBenchmark {
+
+    @Param({"jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1"})
+    public String url;
+
+    @Param({"sa"})
+    public String user;
+
+    @Param({""})
+    public String password;
+
+    @Param({"2", "6"})
+    public int players;
+
+    private Connector connector;
+
+    private Repository repository;
+
+    private Board board;
+
+    private int step;
+
+    @Setup
+    public void setUp() {
+        connector = new Connector(url, user, password);
+        repository = new Repository(connector);
+        board = BoardFactory.getInstance().createBoard(null);
+        for (int i = 0; i < players; i++) {
+            Player player = new Player(board, "red", "Player " + i);
+            board.addPlayer(player);
+            player.setSpace(board.getSpace(i, i));
+            player.setHeading(Heading.SOUTH);
+        }
+        board.setCurrentPlayer(board.getPlayer(0));
+        if (!repository.createGameInDB(board)) {
+            throw new IllegalStateException("Game could not be created in the DB");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        connector.close();
+    }
+
+    /**
+     * Saves the game after moving one of its players.
+     */
+    @Benchmark
+    public boolean saveGame() {
+        Player player = board.getPlayer(step % players);
+        player.setSpace(board.getSpace(step % board.width, 7 - (step % players)));
+        board.setStep(step % Player.NO_REGISTERS);
+        step++;
+        return repository.updateGameInDB(board);
+    }
+
+}
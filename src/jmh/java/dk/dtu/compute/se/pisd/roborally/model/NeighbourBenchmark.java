@@ -0,0 +1,83 @@
+package dk.dtu.compute.se.pisd.roborally.model;
+
+import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lookup of neighbours in the precomputed table of the
+ * {@link Board} with computing them on every call (as it was done before
+ * the table was introduced): a switch with modulo arithmetic and a bounds
+ * check, followed by a linear search in the list of walls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NeighbourBenchmark {
+
+    private Board board;
+
+    private Space[] spaces;
+
+    private final Heading[] headings = Heading.values();
+
+    @Setup
+    public void setUp() {
+        board = BoardFactory.getInstance().createBoard("advanced");
+        spaces = new Space[board.width * board.height];
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                spaces[y * board.width + x] = board.getSpace(x, y);
+            }
+        }
+    }
+
+    @Benchmark
+    public void lookupTable(Blackhole blackhole) {
+        for (Space space : spaces) {
+            for (Heading heading : headings) {
+                blackhole.consume(board.getNeighbour(space, heading));
+            }
+        }
+    }
+
+    @Benchmark
+    public void computeOnEveryCall(Blackhole blackhole) {
+        for (Space space : spaces) {
+            for (Heading heading : headings) {
+                Space neighbour = computeNeighbour(space, heading);
+                if (neighbour != null &&
+                        (space.getWalls().contains(heading) ||
+                                neighbour.getWalls().contains(heading.opposite()))) {
+                    neighbour = null;
+                }
+                blackhole.consume(neighbour);
+            }
+        }
+    }
+
+    private Space computeNeighbour(Space space, Heading heading) {
+        int x = space.x;
+        int y = space.y;
+        switch (heading) {
+            case SOUTH:
+                y = (y + 1) % board.height;
+                break;
+            case WEST:
+                x = (x + board.width - 1) % board.width;
+                break;
+            case NORTH:
+                y = (y + board.height - 1) % board.height;
+                break;
+            case EAST:
+                x = (x + 1) % board.width;
+                break;
+        }
+        return board.getSpace(x, y);
+    }
+
+}
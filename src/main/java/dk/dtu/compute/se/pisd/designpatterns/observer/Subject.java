@@ -22,6 +22,7 @@
 package dk.dtu.compute.se.pisd.designpatterns.observer;
 
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.WeakHashMap;
 
@@ -45,6 +46,53 @@ public abstract class Subject {
 	// that these observers are implicitly removed, when the observers
 	// would be garbage (if not for these references)!
 
+	/**
+	 * The subjects changed during the currently running batch of
+	 * changes, separately for each thread (see {@link #batch(Runnable)}).
+	 */
+	private static final ThreadLocal<Batch> batches = new ThreadLocal<>();
+
+	private static class Batch {
+
+		private int depth = 0;
+
+		private final Set<Subject> changed = new LinkedHashSet<>();
+
+	}
+
+	/**
+	 * Executes the given changes as one batch: during the execution, the
+	 * observers of changed subjects are not notified. When the batch is
+	 * finished, the observers of every changed subject are notified exactly
+	 * once (in the order in which the subjects were changed first). Batches
+	 * can be nested; in that case, the notifications are sent when the
+	 * outermost batch is finished.
+	 *
+	 * Note that batches are local to the thread calling this method; changes
+	 * made by other threads in the meantime are notified immediately.
+	 *
+	 * @param changes the changes to be executed as a batch
+	 */
+	public static void batch(Runnable changes) {
+		Batch batch = batches.get();
+		if (batch == null) {
+			batch = new Batch();
+			batches.set(batch);
+		}
+		batch.depth++;
+		try {
+			changes.run();
+		} finally {
+			batch.depth--;
+			if (batch.depth == 0) {
+				batches.remove();
+				for (Subject subject: batch.changed) {
+					subject.notifyObservers();
+				}
+			}
+		}
+	}
+
 	/**
 	 * This methods allows an observer to register with the subject
 	 * for update notifications when the subject changes.
@@ -65,12 +113,37 @@ public abstract class Subject {
 		observers.remove(observer);
 	}
 	
+	/**
+	 * Returns whether some observer is registered with this subject; for
+	 * headless games, this should never be the case.
+	 *
+	 * @return true if this subject has observers
+	 */
+	final public boolean hasObservers() {
+		return !observers.isEmpty();
+	}
+
 	/**
 	 * This method must be called from methods of concrete subclasses
 	 * of this subject class whenever its state is changed (in a way
-	 * relevant for the observer).
+	 * relevant for the observer). If it is called during a batch of
+	 * changes, the notification is deferred to the end of the batch.
 	 */
 	final protected void notifyChange() {
+		// Subjects of headless games do not have any observers at all;
+		// in that case, we do not even create an iterator.
+		if (observers.isEmpty()) {
+			return;
+		}
+		Batch batch = batches.get();
+		if (batch != null) {
+			batch.changed.add(this);
+		} else {
+			notifyObservers();
+		}
+	}
+
+	private void notifyObservers() {
 		for (Observer observer: observers) {
 			observer.update(this);
 		}
@@ -24,7 +24,13 @@ package dk.dtu.compute.se.pisd.roborally.controller;
 import dk.dtu.compute.se.pisd.designpatterns.observer.Observer;
 import dk.dtu.compute.se.pisd.designpatterns.observer.Subject;
 import dk.dtu.compute.se.pisd.roborally.RoboRally;
+import dk.dtu.compute.se.pisd.roborally.dal.GameFilter;
+import dk.dtu.compute.se.pisd.roborally.dal.GameInDB;
+import dk.dtu.compute.se.pisd.roborally.dal.IRepository;
+import dk.dtu.compute.se.pisd.roborally.dal.RepositoryAccess;
+import dk.dtu.compute.se.pisd.roborally.dal.WriteBehindRepository;
 import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
 import dk.dtu.compute.se.pisd.roborally.model.Player;
 import javafx.application.Platform;
 import javafx.scene.control.Alert;
@@ -33,6 +39,7 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.ChoiceDialog;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -48,10 +55,23 @@ public class AppController implements Observer {
     final private List<Integer> PLAYER_NUMBER_OPTIONS = Arrays.asList(2, 3, 4, 5, 6);
     final private List<String> PLAYER_COLORS = Arrays.asList("red", "green", "blue", "orange", "grey", "magenta");
 
+    /**
+     * The number of games shown at a time in the dialog for loading a game.
+     */
+    final private int GAMES_PER_PAGE = 20;
+
     final private RoboRally roboRally;
 
     private GameController gameController;
 
+    /**
+     * The repository used for saving the games in the background; null
+     * if no database is configured.
+     */
+    private WriteBehindRepository autosave;
+
+    private Phase savedPhase;
+
     public AppController(@NotNull RoboRally roboRally) {
         this.roboRally = roboRally;
     }
@@ -78,6 +98,7 @@ public class AppController implements Observer {
 
             Board board = BoardFactory.getInstance().createBoard(boardType);
             gameController = new GameController(board);
+            gameController.setWinListener(this::showWinner);
             int no = result.get();
             for (int i = 0; i < no; i++) {
                 Player player = new Player(board, PLAYER_COLORS.get(i), "Player " + (i + 1));
@@ -85,6 +106,7 @@ public class AppController implements Observer {
                 player.setSpace(board.getSpace(i % board.width, i));
             }
             gameController.startProgrammingPhase();
+            startAutosave(board);
 
             roboRally.createBoardView(gameController);
         }
@@ -94,14 +116,125 @@ public class AppController implements Observer {
         newGame("default");
     }
 
+    /**
+     * Saves the current game to the database (if a database is configured).
+     * The game is written to the database in the background, so this method
+     * does not block the user interface.
+     */
     public void saveGame() {
-        // Assignment description does not mention this as a task.
+        if (gameController != null && autosave != null &&
+                gameController.board.getCurrentPlayer() != null) {
+            Board board = gameController.board;
+            autosave.saveGame(board);
+            savedPhase = board.getPhase();
+        }
+    }
+
+    /**
+     * Makes the game on the given board be saved automatically after every
+     * register (see {@link RegisterListener}) and whenever the phase changed
+     * (see {@link #update(Subject)}), if a database is configured. The game
+     * controller of the game must be created already.
+     *
+     * @param board the board of the game
+     */
+    private void startAutosave(@NotNull Board board) {
+        if (autosave == null && RepositoryAccess.isConfigured()) {
+            autosave = RepositoryAccess.getWriteBehindRepository();
+            // called by the thread writing the games
+            autosave.setConflictListener(game -> Platform.runLater(() -> showConflict(game)));
+        }
+        savedPhase = null;
+        gameController.setRegisterListener(register -> saveGame());
+        board.attach(this);
     }
 
+    /**
+     * Shows a dialog, in which the user can choose a game saved in the
+     * database, and loads the chosen game. If no database is configured,
+     * a new game is created instead.
+     */
     public void loadGame() {
-        // for now, we just create a new game, assignment description does not mention this as a task.
-        if (gameController == null) {
-            newGame();
+        if (!RepositoryAccess.isConfigured()) {
+            if (gameController == null) {
+                newGame();
+            }
+            return;
+        }
+
+        IRepository repository = RepositoryAccess.getRepository();
+        GameInDB game = chooseGame(repository);
+        if (game == null) {
+            return;
+        }
+        if (gameController != null && !stopGame()) {
+            return;
+        }
+        if (autosave != null) {
+            // the game might have been saved just before
+            autosave.flush();
+        }
+
+        Board board = repository.loadGameFromDB(game.id);
+        if (board == null) {
+            Alert alert = new Alert(AlertType.ERROR);
+            alert.setTitle("Load game");
+            alert.setHeaderText(null);
+            alert.setContentText("The game " + game + " could not be loaded.");
+            alert.showAndWait();
+            return;
+        }
+        gameController = new GameController(board);
+        gameController.setWinListener(this::showWinner);
+        startAutosave(board);
+        savedPhase = board.getPhase();
+
+        roboRally.createBoardView(gameController);
+    }
+
+    /**
+     * Shows the saved games, newest first, one page at a time, and lets the
+     * user choose one of them. Only the games shown are fetched from the
+     * database; the last choice of a page fetches the next page.
+     *
+     * @param repository the repository with the saved games
+     * @return the chosen game, or null if no game was chosen
+     */
+    private GameInDB chooseGame(@NotNull IRepository repository) {
+        final GameInDB more = new GameInDB(-1, null) {
+            @Override
+            public String toString() {
+                return "More games...";
+            }
+        };
+        Integer afterId = null;
+        while (true) {
+            // one more game than shown is fetched, to know whether there are more
+            List<GameInDB> games = repository.getGames(GameFilter.ALL, afterId, GAMES_PER_PAGE + 1);
+            if (games.isEmpty()) {
+                Alert alert = new Alert(AlertType.INFORMATION);
+                alert.setTitle("Load game");
+                alert.setHeaderText(null);
+                alert.setContentText("There are no saved games.");
+                alert.showAndWait();
+                return null;
+            }
+
+            List<GameInDB> choices = new ArrayList<>(games.subList(0, Math.min(games.size(), GAMES_PER_PAGE)));
+            if (games.size() > GAMES_PER_PAGE) {
+                choices.add(more);
+            }
+            ChoiceDialog<GameInDB> dialog = new ChoiceDialog<>(choices.get(0), choices);
+            dialog.setTitle("Load game");
+            dialog.setHeaderText("Select the game to load");
+            Optional<GameInDB> result = dialog.showAndWait();
+
+            if (result.isEmpty()) {
+                return null;
+            } else if (result.get() != more) {
+                return result.get();
+            }
+            afterId = choices.get(GAMES_PER_PAGE - 1).id;
         }
     }
 
@@ -145,17 +278,63 @@ public class AppController implements Observer {
         // If the user did not cancel, the RoboRally application will exit
         // after the option to save the game
         if (gameController == null || stopGame()) {
+            if (autosave != null) {
+                // make sure that all saved games are written to the database
+                autosave.shutdown();
+            }
             Platform.exit();
         }
     }
 
+    /**
+     * Displays a popup message declaring the winner of the current game.
+     *
+     * @param winner the player who won the game
+     */
+    private void showWinner(@NotNull Player winner) {
+        Alert alert = new Alert(AlertType.INFORMATION);
+        alert.setTitle("Game Over");
+        alert.setHeaderText(null);
+        alert.setContentText("Congratulations! " + winner.getName() + " won the game!");
+        alert.showAndWait();
+    }
+
+    /**
+     * Tells the user that the latest changes of the given game could not be
+     * saved, since the game was saved by someone else in the meantime.
+     *
+     * @param game the game
+     */
+    private void showConflict(@NotNull Board game) {
+        Alert alert = new Alert(AlertType.WARNING);
+        alert.setTitle("Save game");
+        alert.setHeaderText(null);
+        alert.setContentText("The game " + game.getGameId() + " was saved by someone else in the meantime, " +
+                "so the latest changes could not be saved. Load the game again to continue with the saved game.");
+        alert.showAndWait();
+    }
+
     public boolean isGameRunning() {
         return gameController != null;
     }
 
 
+    /**
+     * Saves the current game automatically, whenever the phase of the game
+     * changed (for example, when the programming phase is finished). The
+     * game is saved after every register by the game controller's
+     * {@link RegisterListener} anyway.
+     *
+     * @param subject the subject which changed
+     */
     @Override
     public void update(Subject subject) {
+        if (gameController != null && subject == gameController.board) {
+            Board board = gameController.board;
+            if (board.getPhase() != savedPhase) {
+                saveGame();
+            }
+        }
     }
 
     /**
@@ -175,7 +354,9 @@ public class AppController implements Observer {
 
         // Set up a new game controller
         gameController = new GameController(newBoard);
+        gameController.setWinListener(this::showWinner);
         gameController.startProgrammingPhase();
+        startAutosave(newBoard);
 
         // Update the board view
         roboRally.createBoardView(gameController);
@@ -1,10 +1,13 @@
 package dk.dtu.compute.se.pisd.roborally.controller;
 
 import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.BoardLayout;
 import dk.dtu.compute.se.pisd.roborally.model.Heading;
 import dk.dtu.compute.se.pisd.roborally.model.Space;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A factory for creating boards. The factory itself is implemented as a singleton.
@@ -19,6 +22,15 @@ public class BoardFactory {
      */
     static private BoardFactory instance = null;
 
+    public static final String BASIC = "basic";
+
+    public static final String ADVANCED = "advanced";
+
+    /**
+     * The layouts of the boards, which were created already, by their name.
+     */
+    private final Map<String, BoardLayout> layouts = new ConcurrentHashMap<>();
+
     /**
      * Constructor for BoardFactory. It is private in order to make the factory a singleton.
      */
@@ -27,11 +39,12 @@ public class BoardFactory {
 
     /**
      * Returns the single instance of this factory. The instance is lazily
-     * instantiated when requested for the first time.
+     * instantiated when requested for the first time. Since games might be
+     * created concurrently from different threads, this method is synchronized.
      *
      * @return the single instance of the BoardFactory
      */
-    public static BoardFactory getInstance() {
+    public static synchronized BoardFactory getInstance() {
         if (instance == null) {
             instance = new BoardFactory();
         }
@@ -40,14 +53,59 @@ public class BoardFactory {
 
     /**
      * Creates a new board of given name of a board, which indicates
-     * which type of board should be created. For now the name is ignored.
+     * which type of board should be created (see {@link #normaliseName(String)}).
+     * The board is created from the cached layout of that type of board (see
+     * {@link #getLayout(String)}), so that only its spaces need to be created.
      *
      * @param name the given name board
      * @return the new board corresponding to that name
      */
     public Board createBoard(String name) {
+        return new Board(getLayout(name));
+    }
+
+    /**
+     * Returns the layout of the board with the given name. The layout of
+     * each type of board is built only once and then cached. The layouts of
+     * generated boards are not cached, since there can be any number of them,
+     * and they can be generated again from their name.
+     *
+     * @param name the name of the board
+     * @return the layout of the board
+     */
+    public BoardLayout getLayout(String name) {
+        BoardGenerator generator = BoardGenerator.fromName(name);
+        if (generator != null) {
+            return BoardLayout.of(generator.generate());
+        }
+        return layouts.computeIfAbsent(normaliseName(name), this::buildBoardLayout);
+    }
+
+    /**
+     * Returns the name of the type of board, which is created for the given
+     * name: "advanced" for "advanced" (or "&lt;advanced&gt;", which was
+     * used for the advanced board before), the name itself for the names of
+     * generated boards like "generated:42:12x10" (see {@link BoardGenerator}),
+     * and "basic" for all other names.
+     *
+     * @param name the name of a board
+     * @return the name of the type of board
+     * @throws IllegalArgumentException if the name of a generated board has an invalid size
+     */
+    public static String normaliseName(String name) {
+        if (Objects.equals(name, ADVANCED) || Objects.equals(name, "<" + ADVANCED + ">")) {
+            return ADVANCED;
+        }
+        BoardGenerator generator = BoardGenerator.fromName(name);
+        if (generator != null) {
+            return generator.getName();
+        }
+        return BASIC;
+    }
+
+    private BoardLayout buildBoardLayout(String name) {
         Board board;
-        if (Objects.equals(name, "advanced")) {
+        if (Objects.equals(name, ADVANCED)) {
                 board = createAdvancedBoard();
         } else {
             board = createBasicBoard();
@@ -56,31 +114,26 @@ public class BoardFactory {
         // add some walls, actions and checkpoints to some spaces
         Space space = board.getSpace(0,0);
         space.getWalls().add(Heading.SOUTH);
-        ConveyorBelt action  = new ConveyorBelt();
-        action.setHeading(Heading.WEST);
+        ConveyorBelt action  = new ConveyorBelt(Heading.WEST);
         space.getActions().add(action);
 
         space = board.getSpace(1,0);
         space.getWalls().add(Heading.NORTH);
-        action  = new ConveyorBelt();
-        action.setHeading(Heading.WEST);
+        action  = new ConveyorBelt(Heading.WEST);
         space.getActions().add(action);
 
         space = board.getSpace(1,1);
         space.getWalls().add(Heading.WEST);
-        action  = new ConveyorBelt();
-        action.setHeading(Heading.NORTH);
+        action  = new ConveyorBelt(Heading.NORTH);
         space.getActions().add(action);
 
         space = board.getSpace(5,5);
         space.getWalls().add(Heading.SOUTH);
-        action  = new ConveyorBelt();
-        action.setHeading(Heading.WEST);
+        action  = new ConveyorBelt(Heading.WEST);
         space.getActions().add(action);
 
         space = board.getSpace(6,5);
-        action  = new ConveyorBelt();
-        action.setHeading(Heading.WEST);
+        action  = new ConveyorBelt(Heading.WEST);
         space.getActions().add(action);
 
         //Checkpoints
@@ -98,7 +151,8 @@ public class BoardFactory {
                 Checkpoint checkpoint3 = new Checkpoint(3);
                 space.getActions().add(checkpoint3);
             }
-        return board;
+
+        return BoardLayout.of(board);
     }
 
     /**
@@ -106,10 +160,10 @@ public class BoardFactory {
      * @return returns the board types.
      */
     private Board createAdvancedBoard() {
-        return new Board(15,8, "<advanced>");
+        return new Board(15,8, ADVANCED);
     }
 
     private Board createBasicBoard() {
-        return new Board(8,8, "basic");
+        return new Board(8,8, BASIC);
     }
 }
@@ -0,0 +1,283 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+/**
+ * Generates boards procedurally from a seed: some walls, a couple of
+ * straight conveyor lanes, and a route of numbered checkpoints, which are
+ * placed some distance apart from each other. The same seed and size always
+ * result in the same board, so that a generated board can be recreated from
+ * its name, which has the form {@code generated:<seed>:<width>x<height>}
+ * (see {@link BoardFactory}).
+ *
+ * Every generated board is validated: all checkpoints and the spaces on
+ * which the players start must be reachable from each other. If a generated
+ * board is not valid, another one is generated (from the same random
+ * sequence, so that the result still depends on the seed only).
+ */
+public class BoardGenerator {
+
+    public static final String PREFIX = "generated:";
+
+    public static final int MIN_SIZE = 8;
+
+    public static final int MAX_SIZE = 64;
+
+    /**
+     * The number of spaces on which players start; player i starts on
+     * space (i % width, i), see {@link AppController}.
+     */
+    static final int START_SPACES = 6;
+
+    static final int MAX_ATTEMPTS = 100;
+
+    private static final Pattern NAME = Pattern.compile(Pattern.quote(PREFIX) + "(-?\\d+):(\\d+)x(\\d+)");
+
+    private final long seed;
+
+    private final int width;
+
+    private final int height;
+
+    /**
+     * Creates a generator for boards of the given size.
+     *
+     * @param seed the seed of the board
+     * @param width the width of the board
+     * @param height the height of the board
+     * @throws IllegalArgumentException if the width or height is not between
+     *         {@link #MIN_SIZE} and {@link #MAX_SIZE}
+     */
+    public BoardGenerator(long seed, int width, int height) {
+        if (width < MIN_SIZE || width > MAX_SIZE || height < MIN_SIZE || height > MAX_SIZE) {
+            throw new IllegalArgumentException("Size of generated boards must be between " +
+                    MIN_SIZE + " and " + MAX_SIZE + ": " + width + "x" + height);
+        }
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Returns the generator for a board with the given name.
+     *
+     * @param name the name of a board
+     * @return the generator; null if the name is not the name of a generated board
+     * @throws IllegalArgumentException if the size in the name is not valid
+     */
+    public static BoardGenerator fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        Matcher matcher = NAME.matcher(name);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            return new BoardGenerator(Long.parseLong(matcher.group(1)),
+                    Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a valid name of a generated board: " + name, e);
+        }
+    }
+
+    /**
+     * @return the name of the boards generated by this generator
+     */
+    public String getName() {
+        return PREFIX + seed + ":" + width + "x" + height;
+    }
+
+    /**
+     * Generates the board. The layout of the board is updated already.
+     *
+     * @return the generated board
+     * @throws IllegalStateException if no valid board could be generated
+     */
+    public Board generate() {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Board board = new Board(width, height, getName());
+            placeWalls(board, random);
+            board.updateLayout();
+            placeConveyorLanes(board, random);
+            if (placeCheckpoints(board, random)) {
+                board.updateLayout();
+                if (isValid(board)) {
+                    return board;
+                }
+            }
+        }
+        throw new IllegalStateException("No valid board could be generated for " + getName());
+    }
+
+    /**
+     * Generates the boards for the given number of consecutive seeds in
+     * parallel, using the given pool.
+     *
+     * @param pool the pool in which the boards are generated
+     * @param firstSeed the seed of the first board
+     * @param count the number of boards
+     * @param width the width of the boards
+     * @param height the height of the boards
+     * @return the boards, in the order of their seeds
+     */
+    public static List<Board> generateAll(@NotNull ForkJoinPool pool, long firstSeed, int count,
+                                          int width, int height) {
+        return pool.submit(() -> LongStream.range(firstSeed, firstSeed + count)
+                .parallel()
+                .mapToObj(seed -> new BoardGenerator(seed, width, height).generate())
+                .toList()).join();
+    }
+
+    /**
+     * Generates the boards for the given number of consecutive seeds in
+     * parallel, using the common pool.
+     *
+     * @param firstSeed the seed of the first board
+     * @param count the number of boards
+     * @param width the width of the boards
+     * @param height the height of the boards
+     * @return the boards, in the order of their seeds
+     */
+    public static List<Board> generateAll(long firstSeed, int count, int width, int height) {
+        return generateAll(ForkJoinPool.commonPool(), firstSeed, count, width, height);
+    }
+
+    /**
+     * Checks whether the given board can be played: no start space has a
+     * field action, checkpoints 1 to n are on the board exactly once each,
+     * and all start spaces and checkpoints are reachable from the first
+     * start space. Since the walls block moves in both directions, this
+     * means that each checkpoint can be reached from the previous one too.
+     *
+     * @param board the board
+     * @return true if the board is valid
+     */
+    static boolean isValid(@NotNull Board board) {
+        int[] distances = distances(board, board.getSpace(0, 0));
+        for (int i = 0; i < START_SPACES && i < board.height; i++) {
+            Space start = board.getSpace(i % board.width, i);
+            if (!start.getActions().isEmpty() || distances[cell(start)] < 0) {
+                return false;
+            }
+        }
+        List<Space> checkpoints = board.getSpacesWithAction(Checkpoint.class);
+        boolean[] found = new boolean[checkpoints.size()];
+        for (Space space : checkpoints) {
+            int number = space.getCheckpoint().getNumber();
+            if (number < 1 || number > found.length || found[number - 1] || distances[cell(space)] < 0) {
+                return false;
+            }
+            found[number - 1] = true;
+        }
+        return !checkpoints.isEmpty();
+    }
+
+    /**
+     * Computes the number of moves from the given space to all spaces of
+     * the board, with -1 for the spaces which cannot be reached.
+     */
+    static int[] distances(@NotNull Board board, @NotNull Space from) {
+        Space[] queue = new Space[board.width * board.height];
+        int[] distances = new int[queue.length];
+        Arrays.fill(distances, -1);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        distances[cell(from)] = 0;
+        while (head < tail) {
+            Space space = queue[head++];
+            for (Heading heading : Heading.values()) {
+                Space neighbour = board.getNeighbour(space, heading);
+                if (neighbour != null && distances[cell(neighbour)] < 0) {
+                    distances[cell(neighbour)] = distances[cell(space)] + 1;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static int cell(Space space) {
+        return space.y * space.board.width + space.x;
+    }
+
+    private static boolean isStart(Board board, Space space) {
+        return space.y < START_SPACES && space.x == space.y % board.width;
+    }
+
+    private void placeWalls(Board board, SplittableRandom random) {
+        Heading[] headings = Heading.values();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (random.nextInt(6) == 0) {
+                    board.getSpace(x, y).getWalls().add(headings[random.nextInt(headings.length)]);
+                }
+            }
+        }
+    }
+
+    private void placeConveyorLanes(Board board, SplittableRandom random) {
+        Heading[] headings = Heading.values();
+        int lanes = Math.max(1, width * height / 32);
+        int maxLength = Math.max(3, Math.min(width, height) / 2);
+        for (int i = 0; i < lanes; i++) {
+            Space space = board.getSpace(random.nextInt(width), random.nextInt(height));
+            Heading heading = headings[random.nextInt(headings.length)];
+            int length = 2 + random.nextInt(maxLength - 1);
+            // the lane ends at walls and at spaces, which have an action already
+            for (int j = 0; j < length && space != null; j++) {
+                if (isStart(board, space) || !space.getActions().isEmpty()) {
+                    break;
+                }
+                ConveyorBelt belt = new ConveyorBelt(heading);
+                space.getActions().add(belt);
+                space = board.getNeighbour(space, heading);
+            }
+        }
+    }
+
+    /**
+     * Places the checkpoints one after the other on free spaces, each of
+     * which is at least some moves away from the previous checkpoint (or the
+     * first start space); returns false if there is no such space.
+     */
+    private boolean placeCheckpoints(Board board, SplittableRandom random) {
+        int count = Math.min(8, Math.max(3, width * height / 40));
+        int minDistance = (width + height) / 4;
+        Space previous = board.getSpace(0, 0);
+        for (int number = 1; number <= count; number++) {
+            int[] distances = distances(board, previous);
+            List<Space> candidates = new ArrayList<>();
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    Space space = board.getSpace(x, y);
+                    if (distances[cell(space)] >= minDistance && space.getActions().isEmpty() &&
+                            !isStart(board, space)) {
+                        candidates.add(space);
+                    }
+                }
+            }
+            if (candidates.isEmpty()) {
+                return false;
+            }
+            previous = candidates.get(random.nextInt(candidates.size()));
+            previous.getActions().add(new Checkpoint(number));
+        }
+        return true;
+    }
+
+}
@@ -34,17 +34,24 @@ import org.jetbrains.annotations.NotNull;
  */
 public class ConveyorBelt extends FieldAction {
 
-    private Heading heading;
+    private final Heading heading;
 
+    /**
+     * Creates a conveyor belt with the given heading. The heading cannot be
+     * changed afterwards, since the field actions of a board are shared with
+     * the other boards created from the same layout (see
+     * {@link dk.dtu.compute.se.pisd.roborally.model.BoardLayout}).
+     *
+     * @param heading the heading of the conveyor belt; null if it does not have one
+     */
+    public ConveyorBelt(Heading heading) {
+        this.heading = heading;
+    }
 
     public Heading getHeading() {
         return heading;
     }
 
-    public void setHeading(Heading heading) {
-        this.heading = heading;
-    }
-
     /**
      * Implementation of the action of a conveyor belt. Needs to be implemented for A3.
      */
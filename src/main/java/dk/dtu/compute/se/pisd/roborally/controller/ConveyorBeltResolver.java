@@ -0,0 +1,154 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Computes the moves of all robots on conveyor belts for one activation of
+ * the belts at once, so that the result does not depend on the order in
+ * which the belts or robots are visited, and no robot is moved twice.
+ *
+ * Every robot on a conveyor belt tries to move one space in the heading of
+ * the belt. Such a move is blocked, if
+ * <ul>
+ *     <li>there is a wall in the way,</li>
+ *     <li>another robot tries to move to the same space (in that case,
+ *     none of them moves),</li>
+ *     <li>the robot on the target space tries to move to the space of this
+ *     robot (two robots cannot swap their places), or</li>
+ *     <li>the target space is occupied by a robot which does not move.</li>
+ * </ul>
+ * Robots on a chain of belts move together, and robots on a cycle of three or
+ * more belts move around the cycle. The moves are computed in a single pass
+ * over the robots, so the costs depend on the number of robots only.
+ */
+public class ConveyorBeltResolver {
+
+    private static final int UNKNOWN = 0;
+    private static final int VISITING = 1;
+    private static final int MOVES = 2;
+    private static final int BLOCKED = 3;
+
+    private final Player[] robots;
+
+    private final Space[] targets;
+
+    private final int[] state;
+
+    private final Map<Player, Integer> index = new IdentityHashMap<>();
+
+    private final Map<Space, Integer> contenders = new HashMap<>();
+
+    private ConveyorBeltResolver(@NotNull Board board) {
+        int noRobots = board.getPlayersNumber();
+        robots = new Player[noRobots];
+        targets = new Space[noRobots];
+        state = new int[noRobots];
+        for (int i = 0; i < noRobots; i++) {
+            Player robot = board.getPlayer(i);
+            robots[i] = robot;
+            index.put(robot, i);
+            Space space = robot.getSpace();
+            if (space == null) {
+                continue;
+            }
+            for (FieldAction action : space.getActions()) {
+                if (action instanceof ConveyorBelt conveyorBelt && conveyorBelt.getHeading() != null) {
+                    Space target = board.getNeighbour(space, conveyorBelt.getHeading());
+                    if (target == null) {
+                        state[i] = BLOCKED;
+                    } else {
+                        targets[i] = target;
+                        contenders.merge(target, 1, Integer::sum);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the moves of all robots on conveyor belts on the given board.
+     * The board itself is not changed.
+     *
+     * @param board the board
+     * @return the new spaces of the robots which are moved by a belt, in the
+     * order of the players of the board
+     */
+    public static Map<Player, Space> computeMoves(@NotNull Board board) {
+        ConveyorBeltResolver resolver = new ConveyorBeltResolver(board);
+        Map<Player, Space> moves = new LinkedHashMap<>();
+        for (int i = 0; i < resolver.robots.length; i++) {
+            if (resolver.resolve(i) == MOVES) {
+                moves.put(resolver.robots[i], resolver.targets[i]);
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Moves all robots on conveyor belts on the given board as computed by
+     * {@link #computeMoves(Board)}. The robots are taken off the board first,
+     * so that robots can follow each other on chains and cycles of belts.
+     *
+     * @param board the board
+     * @return the number of robots which were moved
+     */
+    public static int moveRobots(@NotNull Board board) {
+        Map<Player, Space> moves = computeMoves(board);
+        for (Player robot : moves.keySet()) {
+            robot.setSpace(null);
+        }
+        for (Map.Entry<Player, Space> move : moves.entrySet()) {
+            move.getKey().setSpace(move.getValue());
+        }
+        return moves.size();
+    }
+
+    private int resolve(int i) {
+        if (state[i] != UNKNOWN) {
+            return state[i];
+        }
+        Space target = targets[i];
+        if (target == null) {
+            // not on a conveyor belt
+            return state[i] = BLOCKED;
+        }
+        if (contenders.get(target) > 1) {
+            return state[i] = BLOCKED;
+        }
+        Player occupant = target.getPlayer();
+        if (occupant == null) {
+            return state[i] = MOVES;
+        }
+        int j = index.get(occupant);
+        if (targets[j] == null || targets[j] == robots[i].getSpace()) {
+            return state[i] = BLOCKED;
+        }
+        if (state[j] == VISITING) {
+            // a cycle of at least three robots, which all move one space further
+            int k = j;
+            do {
+                state[k] = MOVES;
+                k = index.get(targets[k].getPlayer());
+            } while (k != j);
+            return MOVES;
+        }
+
+        state[i] = VISITING;
+        int result = resolve(j);
+        if (state[i] == VISITING) {
+            state[i] = result == MOVES ? MOVES : BLOCKED;
+        }
+        return state[i];
+    }
+
+}
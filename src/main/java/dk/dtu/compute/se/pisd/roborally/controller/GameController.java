@@ -21,10 +21,11 @@
  */
 package dk.dtu.compute.se.pisd.roborally.controller;
 
+import dk.dtu.compute.se.pisd.designpatterns.observer.Subject;
 import dk.dtu.compute.se.pisd.roborally.model.*;
 import org.jetbrains.annotations.NotNull;
 
-import javax.swing.*;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -35,10 +36,57 @@ import java.util.Objects;
  */
 public class GameController {
 
-    static public Board board = null;
+    final public Board board;
+
+    private final Deck deck;
+
+    private WinListener winListener;
+
+    private RegisterListener registerListener;
+
+    /**
+     * The register which was executed by the last call of
+     * {@link #executeNextStep(boolean)}; -1 if the register is not finished.
+     */
+    private int executedRegister = -1;
 
     public GameController(@NotNull Board board) {
+        this(board, new Deck());
+    }
+
+    /**
+     * Creates a game controller, which deals the command cards from the
+     * given deck. Games with decks created from the same seed are dealt
+     * the same cards.
+     *
+     * @param board the board of the game
+     * @param deck the deck of the game
+     */
+    public GameController(@NotNull Board board, @NotNull Deck deck) {
         this.board = board;
+        this.deck = deck;
+    }
+
+    /**
+     * Sets the listener, which is informed when a player wins the game.
+     * The game logic does not show any messages on its own, so that
+     * games can also be run without any UI.
+     *
+     * @param winListener the listener; null if nobody should be informed
+     */
+    public void setWinListener(WinListener winListener) {
+        this.winListener = winListener;
+    }
+
+    /**
+     * Sets the listener, which is informed after every register executed by
+     * {@link #executePrograms()}, {@link #executeStep()} or
+     * {@link #lor(Player, String)}.
+     *
+     * @param registerListener the listener; null if nobody should be informed
+     */
+    public void setRegisterListener(RegisterListener registerListener) {
+        this.registerListener = registerListener;
     }
 
     /**
@@ -50,46 +98,43 @@ public class GameController {
     public void moveCurrentPlayerToSpace(@NotNull Space space) {
         if (space.getPlayer() != null) return;
 
-        space.setPlayer(board.getCurrentPlayer());
-        board.incrementMoves();
+        Subject.batch(() -> {
+            space.setPlayer(board.getCurrentPlayer());
+            board.incrementMoves();
 
-        board.setCurrentPlayer(board.getNextPlayer());
+            board.setCurrentPlayer(board.getNextPlayer());
+        });
     }
 
     /**
      * Starts the programming phase of the game.
      * This method sets the game phase to PROGRAMMING, assigns the first player as the current player,
-     * and resets the programming fields for all players. It also assigns new random command cards.
+     * and resets the programming fields for all players. It also deals new command cards from the
+     * shuffled deck of the game.
      */
     public void startProgrammingPhase() {
-        board.setPhase(Phase.PROGRAMMING);
-        board.setCurrentPlayer(board.getPlayer(0));
-        board.setStep(0);
+        Subject.batch(() -> {
+            deck.shuffle();
+            board.setPhase(Phase.PROGRAMMING);
+            board.setCurrentPlayer(board.getPlayer(0));
+            board.setStep(0);
 
-        for (int i = 0; i < board.getPlayersNumber(); i++) {
-            Player player = board.getPlayer(i);
-            if (player != null) {
-                for (int j = 0; j < Player.NO_REGISTERS; j++) {
-                    CommandCardField field = player.getProgramField(j);
-                    field.setCard(null);
-                    field.setVisible(true);
-                }
-                for (int j = 0; j < Player.NO_CARDS; j++) {
-                    CommandCardField field = player.getCardField(j);
-                    field.setCard(generateRandomCommandCard());
-                    field.setVisible(true);
+            for (int i = 0; i < board.getPlayersNumber(); i++) {
+                Player player = board.getPlayer(i);
+                if (player != null) {
+                    for (int j = 0; j < Player.NO_REGISTERS; j++) {
+                        CommandCardField field = player.getProgramField(j);
+                        field.setCard(null);
+                        field.setVisible(true);
+                    }
+                    for (int j = 0; j < Player.NO_CARDS; j++) {
+                        CommandCardField field = player.getCardField(j);
+                        field.setCard(deck.draw());
+                        field.setVisible(true);
+                    }
                 }
             }
-        }
-    }
-
-    /**
-     * Generates a random command card from the available command set.
-     */
-    private CommandCard generateRandomCommandCard() {
-        Command[] commands = Command.values();
-        int random = (int) (Math.random() * commands.length);
-        return new CommandCard(commands[random]);
+        });
     }
 
     /**
@@ -98,51 +143,54 @@ public class GameController {
      * and sets the game phase to ACTIVATION. It also resets the current player and step to the initial state.
      */
     public void finishProgrammingPhase() {
-        makeProgramFieldsInvisible();
-        makeProgramFieldsVisible(0);
-        board.setPhase(Phase.ACTIVATION);
-        board.setCurrentPlayer(board.getPlayer(0));
-        board.setStep(0);
+        Subject.batch(() -> {
+            makeProgramFieldsInvisible();
+            makeProgramFieldsVisible(0);
+            board.setPhase(Phase.ACTIVATION);
+            board.setCurrentPlayer(board.getPlayer(0));
+            board.setStep(0);
+        });
     }
 
     /**
      * Checks if the game phase should be finished based on the board and player position.
      *
-     * If the board is "<advanced>", the game finishes when a player reaches space (11,6) and has passed the last checkpoint (3).
+     * If the board is "advanced", the game finishes when a player reaches space (11,6) and has passed the last checkpoint (3).
      * If the board is "basic", the game finishes when a player reaches space (7,3) and has passed the last checkpoint (2).
-     * Once the game is finished, it updates the phase to FINISHED and displays the winning message.
+     * If the board is generated, the game finishes when a player reaches the last checkpoint and has passed all others.
+     * Once the game is finished, it updates the phase to FINISHED and informs the
+     * {@link WinListener}, if one is set.
      */
     public void finnishGamePhase() {
-        if (Objects.equals(board.boardName, "<advanced>")) {
-            if (board.getSpace(11, 6).getPlayer() != null && Player.getLastCheckpoint() == 3) {
-                board.setPhase(Phase.FINISHED);
-                ShowWinningBoardAdvanced();
+        Player winner = null;
+        if (Objects.equals(board.boardName, BoardFactory.ADVANCED)) {
+            if (board.getSpace(11, 6).getPlayer() != null && board.getSpace(11, 6).getPlayer().getLastCheckpoint() == 3) {
+                winner = board.getSpace(11, 6).getPlayer();
             }
 
-        } else if (Objects.equals(board.boardName, "basic")) {
-            if (board.getSpace(7, 3).getPlayer() != null && Player.getLastCheckpoint() == 2) {
-                board.setPhase(Phase.FINISHED);
-                ShowWinningBoardBasic();
+        } else if (Objects.equals(board.boardName, BoardFactory.BASIC)) {
+            if (board.getSpace(7, 3).getPlayer() != null && board.getSpace(7, 3).getPlayer().getLastCheckpoint() == 2) {
+                winner = board.getSpace(7, 3).getPlayer();
             }
-        }
 
-    }
+        } else if (BoardGenerator.fromName(board.boardName) != null) {
+            List<Space> checkpoints = board.getSpacesWithAction(Checkpoint.class);
+            for (Space space : checkpoints) {
+                if (space.getCheckpoint().getNumber() == checkpoints.size() && space.getPlayer() != null &&
+                        space.getPlayer().getLastCheckpoint() == checkpoints.size()) {
+                    winner = space.getPlayer();
+                }
+            }
+        }
 
-    /**
-     * Displays a popup message declaring the winner, for each of the boards
-     */
-    public static void ShowWinningBoardBasic() {
-        // Show popup instantly when the game is won
-        JOptionPane.showMessageDialog(null, "Congratulations! " + board.getSpace(7, 3).getPlayer().getName() + " won the game!", "Game Over", JOptionPane.INFORMATION_MESSAGE);
-    }
-    public static void ShowWinningBoardAdvanced() {
-        // Show popup instantly when the game is won
-        JOptionPane.showMessageDialog(null, "Congratulations! " + board.getSpace(11, 6).getPlayer().getName() + " won the game!", "Game Over", JOptionPane.INFORMATION_MESSAGE);
+        if (winner != null) {
+            board.setPhase(Phase.FINISHED);
+            if (winListener != null) {
+                winListener.playerWon(winner);
+            }
+        }
     }
 
-
-
-
     /**
      * Makes the program field at the specified register visible for all players.
      */
@@ -184,8 +232,11 @@ public class GameController {
      * Executes the next step in the game while keeping step mode enabled.
      */
     public void executeStep() {
-        board.setStepMode(true);
-        executeNextStep(false);
+        Subject.batch(() -> {
+            board.setStepMode(true);
+            executeNextStep(false);
+        });
+        fireRegisterExecuted();
     }
 
     /**
@@ -193,13 +244,30 @@ public class GameController {
      * and step mode is not enabled.
      *
      * If `waitingForLoR` is false, execution stops immediately (temporary fix).
+     *
+     * The changes of each register are executed as one batch, after which the
+     * {@link RegisterListener} is informed.
      */
     private void continuePrograms() {
         do {
-            executeNextStep(false);
+            Subject.batch(() -> {
+                executedRegister = -1;
+                do {
+                    executeNextStep(false);
+                } while (executedRegister < 0 && board.getPhase() == Phase.ACTIVATION && !board.isStepMode());
+            });
+            fireRegisterExecuted();
         } while (board.getPhase() == Phase.ACTIVATION && !board.isStepMode());
     }
 
+    private void fireRegisterExecuted() {
+        int register = executedRegister;
+        executedRegister = -1;
+        if (register >= 0 && registerListener != null) {
+            registerListener.registerExecuted(register);
+        }
+    }
+
     /**
      * Executes the next step in the player's program.
      *
@@ -230,6 +298,7 @@ public class GameController {
                 if (nextPlayerNumber < board.getPlayersNumber()) {
                     board.setCurrentPlayer(board.getPlayer(nextPlayerNumber));
                 } else {
+                    executedRegister = step;
                     step++;
                     if (step < Player.NO_REGISTERS) {
                         makeProgramFieldsVisible(step);
@@ -253,29 +322,25 @@ public class GameController {
     /**
      * Activates all conveyor belts on the board.
      *
-     * This method iterates over all spaces on the board and triggers conveyor belt actions, if present.
+     * The moves of all robots on belts are computed at once by the
+     * {@link ConveyorBeltResolver}, so that chains of robots on belts and
+     * robots competing for the same space are dealt with independently of
+     * the order of the spaces and robots.
      */
-    private void activateConveyorBelts() {
-        for (int x = 0; x < board.width; x++) {
-            for (int y = 0; y < board.height; y++) {
-                Space space = board.getSpace(x, y);
-                for (FieldAction action : space.getActions()) {
-                    if (action instanceof ConveyorBelt conveyorBelt) {
-                        conveyorBelt.doAction(this, space);
-                    }
-                }
-            }
-        }
+    void activateConveyorBelts() {
+        ConveyorBeltResolver.moveRobots(board);
     }
+
     /**
      * Activates all checkpoints on the board.
      *
-     * This method iterates over all spaces on the board and triggers checkpoint actions, if present.
+     * Since only checkpoints with a robot on them have an effect, this
+     * method checks the spaces the robots are on only.
      */
-    private void activateCheckPoints() {
-        for (int x = 0; x < board.width; x++) {
-            for (int y = 0; y < board.height; y++) {
-                Space space = board.getSpace(x, y);
+    void activateCheckPoints() {
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Space space = board.getPlayer(i).getSpace();
+            if (space != null) {
                 for (FieldAction action : space.getActions()) {
                     if (action instanceof Checkpoint checkpoint) {
                         checkpoint.doAction(this, space);
@@ -395,18 +460,20 @@ public class GameController {
      * @param direction the direction the player is heading towards
      */
     public void lor(@NotNull Player player, String direction) {
-        if (direction.equals("left")) {
-            turnLeft(player);
-        } else if (direction.equals("right")) {
-            turnRight(player);
-        }
+        Subject.batch(() -> {
+            if (direction.equals("left")) {
+                turnLeft(player);
+            } else if (direction.equals("right")) {
+                turnRight(player);
+            }
 
-        board.setPhase(Phase.ACTIVATION);
-        executeNextStep(true);
+            board.setPhase(Phase.ACTIVATION);
+            executeNextStep(true);
+        });
+        fireRegisterExecuted();
         if (board.getPhase() == Phase.ACTIVATION) {
             continuePrograms();
         }
-
     }
 
     /**
@@ -425,7 +492,7 @@ public class GameController {
      */
     private boolean pushRobots(Space space, Heading direction) {
         Space nextSpace = board.getNeighbour(space, direction);
-        if (nextSpace == null || nextSpace.getWalls().contains(direction)) {
+        if (nextSpace == null) {
             return false; // Movement blocked by a wall
         }
 
@@ -444,6 +511,115 @@ public class GameController {
 
 
 
+    /**
+     * Executes the given command for a player on the compact representation of
+     * a board. This is the same logic as {@link #executeCommand(Player, Command)},
+     * but without going through the objects of the board and their observers;
+     * interactive commands are ignored here.
+     *
+     * @param compact the compact representation of the board
+     * @param player the number of the player
+     * @param command the command to be executed
+     */
+    public void executeCommand(@NotNull CompactBoard compact, int player, Command command) {
+        if (command != null && compact.getPlayerCell(player) >= 0) {
+            switch (command) {
+                case FORWARD:
+                    this.moveForward(compact, player);
+                    break;
+                case RIGHT:
+                    this.turnRight(compact, player);
+                    break;
+                case LEFT:
+                    this.turnLeft(compact, player);
+                    break;
+                case FAST_FORWARD:
+                    this.fastForward(compact, player);
+                    break;
+                case U_TURN:
+                    this.uTurn(compact, player);
+                    break;
+                case BACKWARD:
+                    this.moveBackward(compact, player);
+                    break;
+                default:
+                    // DO NOTHING (for now)
+            }
+        }
+    }
+
+    /**
+     * Moves the player forward; nothing happens if the player is not on the board.
+     *
+     * @param compact the compact representation of the board
+     * @param player the number of the player moving forward
+     */
+    public void moveForward(@NotNull CompactBoard compact, int player) {
+        int cell = compact.getPlayerCell(player);
+        if (cell >= 0) {
+            pushRobots(compact, cell, compact.getPlayerHeading(player));
+        }
+    }
+
+    /**
+     * Moves the player backward; nothing happens if the player is not on the board.
+     *
+     * @param compact the compact representation of the board
+     * @param player the number of the player moving backward
+     */
+    public void moveBackward(@NotNull CompactBoard compact, int player) {
+        int cell = compact.getPlayerCell(player);
+        if (cell >= 0) {
+            pushRobots(compact, cell, compact.getPlayerHeading(player).opposite());
+        }
+    }
+
+    /**
+     * @param compact the compact representation of the board
+     * @param player the number of the player moving two spaces forward
+     */
+    public void fastForward(@NotNull CompactBoard compact, int player) {
+        moveForward(compact, player);
+        moveForward(compact, player);
+    }
+
+    public void turnRight(@NotNull CompactBoard compact, int player) {
+        compact.setPlayerHeading(player, compact.getPlayerHeading(player).next());
+    }
+
+    public void turnLeft(@NotNull CompactBoard compact, int player) {
+        compact.setPlayerHeading(player, compact.getPlayerHeading(player).prev());
+    }
+
+    public void uTurn(@NotNull CompactBoard compact, int player) {
+        compact.setPlayerHeading(player, compact.getPlayerHeading(player).opposite());
+    }
+
+    /**
+     * The same as {@link #pushRobots(Space, Heading)} on the compact representation
+     * of the board.
+     *
+     * @param compact the compact representation of the board
+     * @param cell the cell of the robot to be pushed
+     * @param direction the direction in which the robot is pushed
+     * @return false if the movement is blocked
+     */
+    private boolean pushRobots(@NotNull CompactBoard compact, int cell, Heading direction) {
+        int nextCell = compact.getNeighbour(cell, direction);
+        if (nextCell < 0) {
+            return false; // Movement blocked by a wall
+        }
+
+        if (compact.getPlayerAt(nextCell) != CompactBoard.NO_PLAYER) {
+            if (!pushRobots(compact, nextCell, direction)) {
+                return false; // Chain movement blocked
+            }
+        }
+
+        compact.movePlayer(compact.getPlayerAt(cell), nextCell);
+        return true;
+    }
+
     /**
      * A method called when no corresponding controller operation is implemented yet.
      * This should eventually be removed.
@@ -0,0 +1,85 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A registry hosting any number of independent games in the same JVM, each
+ * consisting of a {@link Board} and its {@link GameController}. Since all
+ * state of a game is kept in the board and its controller, the games do not
+ * interfere with each other; different games can be played concurrently in
+ * different threads (each single game must be played by one thread at a
+ * time, though).
+ *
+ * The registry itself is thread-safe.
+ */
+public class GameRegistry {
+
+    private final Map<Integer, GameController> games = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextId = new AtomicInteger(0);
+
+    /**
+     * Creates a new game controller for the given board and registers
+     * it as a new game in this registry.
+     *
+     * @param board the board of the new game
+     * @return the id of the game in this registry
+     */
+    public int register(@NotNull Board board) {
+        return register(new GameController(board));
+    }
+
+    /**
+     * Registers the game of the given game controller in this registry.
+     *
+     * @param gameController the game controller of the new game
+     * @return the id of the game in this registry
+     */
+    public int register(@NotNull GameController gameController) {
+        int id = nextId.getAndIncrement();
+        games.put(id, gameController);
+        return id;
+    }
+
+    /**
+     * Returns the game controller of the game with the given id.
+     *
+     * @param id the id of the game in this registry
+     * @return the game controller of the game; null if there is no such game
+     */
+    public GameController getGame(int id) {
+        return games.get(id);
+    }
+
+    /**
+     * Removes the game with the given id from this registry.
+     *
+     * @param id the id of the game in this registry
+     * @return the game controller of the removed game; null if there was no such game
+     */
+    public GameController removeGame(int id) {
+        return games.remove(id);
+    }
+
+    /**
+     * Returns an unmodifiable view of all the games currently hosted
+     * in this registry.
+     *
+     * @return the game controllers of all games
+     */
+    public Collection<GameController> getGames() {
+        return Collections.unmodifiableCollection(games.values());
+    }
+
+    public int size() {
+        return games.size();
+    }
+
+}
@@ -0,0 +1,22 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+/**
+ * A callback which is informed by the {@link GameController} whenever a
+ * register of all players was executed. It is called after the changes of
+ * the register were notified to the observers of the game (i.e. outside of
+ * any batch of changes), so that the game can be saved after every register,
+ * for example.
+ */
+@FunctionalInterface
+public interface RegisterListener {
+
+    /**
+     * Called after the given register of all players was executed; when
+     * the last register was executed, the field actions were activated
+     * and the next programming phase was started already.
+     *
+     * @param register the number of the register
+     */
+    void registerExecuted(int register);
+
+}
@@ -0,0 +1,206 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Deck;
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A headless engine for simulating complete games, e.g. for bots playing
+ * against each other on a server without any display. The engine drives
+ * a {@link GameController} through full rounds (programming and
+ * activation phase) without any UI involved: the programs of the players
+ * are chosen by a {@link Programmer}, the interactive cards are resolved
+ * by an {@link InteractionHandler}, and the end of the game is reported
+ * to a {@link WinListener}.
+ *
+ * Note that this class must not depend on JavaFX or Swing; and the board
+ * should not have any observers attached, so that the speed of the
+ * simulation is bounded by the game logic only.
+ */
+public class SimulationEngine {
+
+    /**
+     * Chooses the program of a player in the programming phase.
+     */
+    @FunctionalInterface
+    public interface Programmer {
+
+        /**
+         * Programs the registers of the given player from the cards the player
+         * was dealt in the current round.
+         *
+         * @param player the player to be programmed
+         */
+        void program(@NotNull Player player);
+
+    }
+
+    /**
+     * Decides on the choice of a player, when an interactive command card
+     * is executed.
+     */
+    @FunctionalInterface
+    public interface InteractionHandler {
+
+        /**
+         * Returns the choice of the player for the interactive card; the
+         * result is passed on to {@link GameController#lor(Player, String)}.
+         *
+         * @param player the player who needs to make a choice
+         * @return "left" or "right"
+         */
+        String choose(@NotNull Player player);
+
+    }
+
+    /**
+     * The default programmer, which puts the first dealt cards into the
+     * registers in the order in which they were dealt.
+     */
+    public static final Programmer FIRST_CARDS = player -> {
+        for (int i = 0; i < Player.NO_REGISTERS; i++) {
+            player.getProgramField(i).setCard(player.getCardField(i).getCard());
+        }
+    };
+
+    /**
+     * The default interaction handler, which always turns left.
+     */
+    public static final InteractionHandler ALWAYS_LEFT = player -> "left";
+
+    final public Board board;
+
+    final public GameController gameController;
+
+    private Programmer programmer = FIRST_CARDS;
+
+    private InteractionHandler interactionHandler = ALWAYS_LEFT;
+
+    private Player winner;
+
+    private int rounds = 0;
+
+    /**
+     * Creates a simulation engine for the given board, which should have all
+     * its players added and placed on the board already.
+     *
+     * @param board the board of the game to be simulated
+     */
+    public SimulationEngine(@NotNull Board board) {
+        this(new GameController(board));
+    }
+
+    /**
+     * Creates a simulation engine for the given board, whose cards are dealt
+     * from a deck shuffled with the given seed. Simulating the same game with
+     * the same seed again has the same result.
+     *
+     * @param board the board of the game to be simulated
+     * @param seed the seed of the deck
+     */
+    public SimulationEngine(@NotNull Board board, long seed) {
+        this(new GameController(board, new Deck(seed)));
+    }
+
+    /**
+     * Creates a simulation engine for a game with an existing game controller,
+     * e.g. a game hosted in a {@link GameRegistry}. Note that the engine
+     * replaces the win listener of the game controller.
+     *
+     * @param gameController the game controller of the game to be simulated
+     */
+    public SimulationEngine(@NotNull GameController gameController) {
+        this.board = gameController.board;
+        this.gameController = gameController;
+        this.gameController.setWinListener(winner -> this.winner = winner);
+    }
+
+    public void setProgrammer(@NotNull Programmer programmer) {
+        this.programmer = programmer;
+    }
+
+    public void setInteractionHandler(@NotNull InteractionHandler interactionHandler) {
+        this.interactionHandler = interactionHandler;
+    }
+
+    /**
+     * Sets an additional listener, which is informed when a player wins the
+     * simulated game (the engine itself keeps track of the winner anyway).
+     *
+     * @param winListener the additional listener; null for none
+     */
+    public void setWinListener(WinListener winListener) {
+        gameController.setWinListener(winner -> {
+            this.winner = winner;
+            if (winListener != null) {
+                winListener.playerWon(winner);
+            }
+        });
+    }
+
+    /**
+     * Plays one full round of the game: all players are programmed, and then
+     * all registers are executed including the field actions at the end of
+     * the round. Afterwards, the game is in the programming phase of the next
+     * round again, unless some player has won the game.
+     *
+     * @return true if the game is still running after this round
+     */
+    public boolean runRound() {
+        if (isFinished()) {
+            return false;
+        }
+        if (board.getPhase() != Phase.PROGRAMMING) {
+            gameController.startProgrammingPhase();
+        }
+
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            programmer.program(board.getPlayer(i));
+        }
+        gameController.finishProgrammingPhase();
+        gameController.executePrograms();
+
+        while (board.getPhase() == Phase.PLAYER_INTERACTION) {
+            Player player = board.getCurrentPlayer();
+            gameController.lor(player, interactionHandler.choose(player));
+        }
+
+        // when the program was continued after an interaction, the end of
+        // the game has not been checked yet
+        if (board.getPhase() != Phase.FINISHED) {
+            gameController.finnishGamePhase();
+        }
+
+        rounds++;
+        return !isFinished();
+    }
+
+    /**
+     * Plays rounds until some player won the game or the given maximum
+     * number of rounds was played.
+     *
+     * @param maxRounds the maximum number of rounds to be played
+     * @return the winner of the game; null if nobody won
+     */
+    public Player run(int maxRounds) {
+        while (rounds < maxRounds && runRound()) {
+            // nothing else to do
+        }
+        return winner;
+    }
+
+    public boolean isFinished() {
+        return board.getPhase() == Phase.FINISHED;
+    }
+
+    public Player getWinner() {
+        return winner;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+}
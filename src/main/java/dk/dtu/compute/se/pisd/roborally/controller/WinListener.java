@@ -0,0 +1,23 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A callback which is informed by the {@link GameController} when a player
+ * has won the game. The GUI uses it for showing a message to the user,
+ * whereas a headless {@link SimulationEngine} can use it for collecting
+ * statistics; this way, the game logic itself does not depend on any UI.
+ */
+@FunctionalInterface
+public interface WinListener {
+
+    /**
+     * Called once when the game has been won; at that point in time, the
+     * phase of the board is already set to FINISHED.
+     *
+     * @param winner the player who won the game
+     */
+    void playerWon(@NotNull Player winner);
+
+}
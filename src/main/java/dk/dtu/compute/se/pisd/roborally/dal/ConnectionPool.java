@@ -0,0 +1,220 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A simple bounded pool of database connections. At most {@link #getMaxSize()}
+ * connections are borrowed at the same time; threads trying to borrow more
+ * connections wait until a connection is returned (or until a timeout).
+ *
+ * Returned connections are kept for being used again. A connection is
+ * closed and replaced by a new one, when it exceeds its maximum lifetime,
+ * or when it was idle for some time and turns out to be not valid anymore
+ * when it is borrowed again (for example, because the database server has
+ * closed it in the meantime).
+ */
+class ConnectionPool {
+
+	static final int DEFAULT_MAX_SIZE = 8;
+
+	static final long DEFAULT_MAX_LIFETIME = TimeUnit.MINUTES.toMillis(30);
+
+	static final long DEFAULT_VALIDATION_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+
+	static final long DEFAULT_BORROW_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+	/**
+	 * The timeout in seconds for validating idle connections.
+	 */
+	private static final int VALIDATION_TIMEOUT = 2;
+
+	private final String url;
+
+	private final String username;
+
+	private final String password;
+
+	private final int maxSize;
+
+	private final long maxLifetime;
+
+	private final long validationInterval;
+
+	private final long borrowTimeout;
+
+	private final Semaphore permits;
+
+	private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+	private boolean closed = false;
+
+	/**
+	 * Creates a pool for the database with the given URL and credentials,
+	 * with default settings.
+	 *
+	 * @param url the JDBC URL of the database
+	 * @param username the user name
+	 * @param password the password
+	 */
+	ConnectionPool(String url, String username, String password) {
+		this(url, username, password, DEFAULT_MAX_SIZE, DEFAULT_MAX_LIFETIME,
+				DEFAULT_VALIDATION_INTERVAL, DEFAULT_BORROW_TIMEOUT);
+	}
+
+	/**
+	 * Creates a pool for the database with the given URL and credentials.
+	 *
+	 * @param url the JDBC URL of the database
+	 * @param username the user name
+	 * @param password the password
+	 * @param maxSize the maximum number of connections
+	 * @param maxLifetime the time in milliseconds after which a connection is replaced
+	 * @param validationInterval the time in milliseconds after which an idle connection
+	 *                           is validated before it is borrowed again
+	 * @param borrowTimeout the maximum time in milliseconds to wait for a connection
+	 */
+	ConnectionPool(String url, String username, String password,
+				   int maxSize, long maxLifetime, long validationInterval, long borrowTimeout) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("The pool must have at least one connection");
+		}
+		this.url = url;
+		this.username = username;
+		this.password = password;
+		this.maxSize = maxSize;
+		this.maxLifetime = TimeUnit.MILLISECONDS.toNanos(maxLifetime);
+		this.validationInterval = TimeUnit.MILLISECONDS.toNanos(validationInterval);
+		this.borrowTimeout = borrowTimeout;
+		this.permits = new Semaphore(maxSize, true);
+	}
+
+	/**
+	 * Borrows a connection from this pool. The connection must be returned
+	 * by closing it, which is best done by a try-with-resources statement.
+	 *
+	 * @return the connection
+	 * @throws SQLException if no connection could be obtained in time
+	 * or if a new connection could not be opened
+	 */
+	PooledConnection getConnection() throws SQLException {
+		try {
+			if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+				throw new SQLException("Timeout while waiting for a database connection");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a database connection", e);
+		}
+
+		try {
+			PooledConnection pooled;
+			while ((pooled = pollIdle()) != null) {
+				if (isUsable(pooled)) {
+					pooled.setBorrowed(true);
+					return pooled;
+				}
+				pooled.closePhysically();
+			}
+
+			Connection connection = DriverManager.getConnection(url, username, password);
+			pooled = new PooledConnection(this, connection);
+			pooled.setBorrowed(true);
+			return pooled;
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	private synchronized PooledConnection pollIdle() throws SQLException {
+		if (closed) {
+			throw new SQLException("The connection pool is closed");
+		}
+		return idle.pollFirst();
+	}
+
+	private boolean isUsable(PooledConnection pooled) {
+		long now = System.nanoTime();
+		if (now - pooled.getCreated() >= maxLifetime) {
+			return false;
+		}
+		if (now - pooled.getLastUsed() >= validationInterval) {
+			try {
+				return pooled.getConnection().isValid(VALIDATION_TIMEOUT);
+			} catch (SQLException e) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a borrowed connection to this pool. Transactions which are
+	 * still open are rolled back.
+	 *
+	 * @param pooled the connection
+	 */
+	void release(PooledConnection pooled) {
+		synchronized (this) {
+			if (!pooled.isBorrowed()) {
+				return;
+			}
+			pooled.setBorrowed(false);
+		}
+
+		boolean reusable;
+		try {
+			Connection connection = pooled.getConnection();
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+			reusable = !connection.isClosed() &&
+					System.nanoTime() - pooled.getCreated() < maxLifetime;
+		} catch (SQLException e) {
+			reusable = false;
+		}
+
+		synchronized (this) {
+			if (reusable && !closed) {
+				idle.addFirst(pooled);
+				pooled = null;
+			}
+		}
+		if (pooled != null) {
+			pooled.closePhysically();
+		}
+		permits.release();
+	}
+
+	/**
+	 * Closes all idle connections of this pool; connections which are
+	 * borrowed at this time are closed when they are returned.
+	 */
+	void close() {
+		Deque<PooledConnection> connections;
+		synchronized (this) {
+			closed = true;
+			connections = new ArrayDeque<>(idle);
+			idle.clear();
+		}
+		for (PooledConnection pooled : connections) {
+			pooled.closePhysically();
+		}
+	}
+
+	int getMaxSize() {
+		return maxSize;
+	}
+
+	synchronized int getIdleCount() {
+		return idle.size();
+	}
+
+}
@@ -26,7 +26,7 @@ import dk.dtu.compute.se.pisd.roborally.fileaccess.IOUtil;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -45,20 +45,67 @@ class Connector {
 	private static final String  PROP_DB = "DATABASE";
 	private static final String  PROP_USERNAME = "USERNAME";
 	private static final String  PROP_PASSWORD = "PASSWORD";
+	private static final String  PROP_POOL_SIZE = "POOL_SIZE";
 
 	private static final String PATH_TO_PROPFILE = "properties/db.properties";
 
-	private final String HOST;
-	private final int    PORT;
-	private final String DATABASE;
-	private final String USERNAME;
-	private final String PASSWORD;
+	private static final String PATH_TO_SCHEMA = "schemas/createschema.sql";
+
+	private static final String PATH_TO_FOREIGN_KEYS = "schemas/createforeignkeys.sql";
 
     private static final String DELIMITER = ";;";
     
-    private Connection connection;
-        
+    private final ConnectionPool pool;
+
+	/**
+	 * Creates a connector for the database configured in the file
+	 * <code>db.properties</code> in the resources.
+	 */
     Connector() {
+		this(readProperties());
+	}
+
+	private Connector(Properties properties) {
+		// String url = "jdbc:mysql://" + HOST + ":" + PORT + "/" + DATABASE;
+		this(new ConnectionPool(
+				"jdbc:mysql://" + properties.getProperty(PROP_HOST) + ":" +
+						properties.getProperty(PROP_PORT) + "/" +
+						properties.getProperty(PROP_DB) +
+						// batches of inserts and updates are sent as one statement
+						"?serverTimezone=UTC&rewriteBatchedStatements=true",
+				properties.getProperty(PROP_USERNAME),
+				properties.getProperty(PROP_PASSWORD),
+				Integer.parseInt(properties.getProperty(PROP_POOL_SIZE,
+						String.valueOf(ConnectionPool.DEFAULT_MAX_SIZE))),
+				ConnectionPool.DEFAULT_MAX_LIFETIME,
+				ConnectionPool.DEFAULT_VALIDATION_INTERVAL,
+				ConnectionPool.DEFAULT_BORROW_TIMEOUT));
+	}
+
+	/**
+	 * Creates a connector for the database with the given JDBC URL and
+	 * credentials (for example, for a local or embedded database).
+	 *
+	 * @param url the JDBC URL of the database
+	 * @param username the user name
+	 * @param password the password
+	 */
+	Connector(String url, String username, String password) {
+		this(new ConnectionPool(url, username, password));
+	}
+
+	/**
+	 * Creates a connector using the given pool of connections. The database
+	 * schema is created, if it does not exist yet.
+	 *
+	 * @param pool the pool of connections
+	 */
+	Connector(ConnectionPool pool) {
+		this.pool = pool;
+		createDatabaseSchema();
+	}
+
+	private static Properties readProperties() {
 		try {
 			ClassLoader classLoader = Connector.class.getClassLoader();
 			InputStream input = classLoader.getResourceAsStream(PATH_TO_PROPFILE);
@@ -66,16 +113,18 @@ class Connector {
 			Properties properties = new Properties();
 			properties.load(input);
 
-			HOST = properties.getProperty(PROP_HOST);
+			String host = properties.getProperty(PROP_HOST);
 			String port = properties.getProperty(PROP_PORT);
-			DATABASE = properties.getProperty(PROP_DB);
-			USERNAME = properties.getProperty(PROP_USERNAME);
-			PASSWORD = properties.getProperty(PROP_PASSWORD);
-
-			if ( HOST != null && port != null &&
-					DATABASE != null &&
-					USERNAME != null && PASSWORD != null) {
-				PORT = Integer.parseInt(port);
+			String database = properties.getProperty(PROP_DB);
+			String username = properties.getProperty(PROP_USERNAME);
+			String password = properties.getProperty(PROP_PASSWORD);
+
+			if ( host != null && port != null &&
+					database != null &&
+					username != null && password != null) {
+				Integer.parseInt(port);
+				Integer.parseInt(properties.getProperty(PROP_POOL_SIZE, "1"));
+				return properties;
 			} else
 				throw new RuntimeException(
 						"Database access information are missing, incomplete or wrong in " +
@@ -83,53 +132,87 @@ class Connector {
 		} catch (IOException | NumberFormatException e ) {
             throw new RuntimeException(e);
         }
-
-        try {
-			// String url = "jdbc:mysql://" + HOST + ":" + PORT + "/" + DATABASE;
-			String url = "jdbc:mysql://" + HOST + ":" + PORT + "/" + DATABASE + "?serverTimezone=UTC";
-			connection = DriverManager.getConnection(url, USERNAME, PASSWORD);
-
-			createDatabaseSchema();
+    }
+    
+    private void createDatabaseSchema() {
+		try (PooledConnection pooled = pool.getConnection()) {
+			Connection connection = pooled.getConnection();
+			try {
+				// checked before the tables are created, so that the foreign
+				// keys are added to new schemas only
+				boolean newSchema = !tableExists(connection, "Game");
+				connection.setAutoCommit(false);
+				Statement statement = connection.createStatement();
+				executeScript(statement, PATH_TO_SCHEMA);
+				if (newSchema) {
+					executeScript(statement, PATH_TO_FOREIGN_KEYS);
+				}
+
+				statement.close();
+				connection.commit();
+			} catch (SQLException e) {
+				e.printStackTrace();
+				// TODO error handling
+				try {
+					connection.rollback();
+				} catch (SQLException e1) {}
+			} finally {
+				try {
+					connection.setAutoCommit(true);
+				} catch (SQLException e) {}
+			}
 		} catch (SQLException e) {
 			// TODO we should try to diagnose and fix some problems here and
 			//      exit in a more graceful way
 			throw new RuntimeException(e);
 		}
     }
-    
-    private void createDatabaseSchema() {
 
-    	String createTablesStatement =
-				IOUtil.readResource("schemas/createschema.sql");
-
-    	try {
-    		connection.setAutoCommit(false);
-    		Statement statement = connection.createStatement();
-    		for (String sql : createTablesStatement.split(DELIMITER)) {
-    			if (!sql.isBlank()) {
-					try {
-						statement.executeUpdate(sql);
-					} catch (SQLException e) {}
-    			}
-    		}
-
-    		statement.close();
-    		connection.commit();
-    	} catch (SQLException e) {
-    		e.printStackTrace();
-    		// TODO error handling
-    		try {
-				connection.rollback();
-			} catch (SQLException e1) {}
-    	} finally {
-			try {
-				connection.setAutoCommit(true);
-			} catch (SQLException e) {}
+	/**
+	 * Executes the statements of the script with the given path in the
+	 * resources. Statements which fail are ignored, so that scripts can
+	 * be run on existing schemas again.
+	 */
+	private void executeScript(Statement statement, String path) {
+		String script = IOUtil.readResource(path);
+		for (String sql : script.split(DELIMITER)) {
+			if (!sql.isBlank()) {
+				try {
+					statement.executeUpdate(sql);
+				} catch (SQLException e) {}
+			}
 		}
-    }
-    
-    Connection getConnection() {
-    	return connection; 
-    }
+	}
+
+	private boolean tableExists(Connection connection, String table) throws SQLException {
+		// the case of the table names depends on the database
+		try (ResultSet rs = connection.getMetaData().getTables(
+				connection.getCatalog(), null, "%", new String[] {"TABLE"})) {
+			while (rs.next()) {
+				if (table.equalsIgnoreCase(rs.getString("TABLE_NAME"))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Borrows a connection from the pool of this connector. The connection
+	 * must be closed after use, which returns it to the pool.
+	 *
+	 * @return the connection
+	 * @throws SQLException if no connection could be obtained
+	 */
+	PooledConnection getConnection() throws SQLException {
+		return pool.getConnection();
+	}
+
+	/**
+	 * Closes all connections of this connector.
+	 */
+	void close() {
+		pool.close();
+	}
     
 }
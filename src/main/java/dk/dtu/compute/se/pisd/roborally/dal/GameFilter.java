@@ -0,0 +1,24 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
+
+import java.time.LocalDateTime;
+
+/**
+ * A filter for the games listed by {@link IRepository#getGames(GameFilter, Integer, int)}.
+ * Every criterion which is null is ignored.
+ *
+ * @param phase the phase of the games
+ * @param boardName the name of the board of the games
+ * @param createdFrom the earliest time (inclusive) when the games were created
+ * @param createdTo the latest time (exclusive) when the games were created
+ */
+public record GameFilter(Phase phase, String boardName,
+						 LocalDateTime createdFrom, LocalDateTime createdTo) {
+
+	/**
+	 * The filter which accepts all games.
+	 */
+	public static final GameFilter ALL = new GameFilter(null, null, null, null);
+
+}
@@ -21,6 +21,10 @@
  */
 package dk.dtu.compute.se.pisd.roborally.dal;
 
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
+
+import java.time.LocalDateTime;
+
 /**
  * ...
  *
@@ -32,14 +36,32 @@ public class GameInDB {
     public final int id;
     public final String name;
 
+    /**
+     * The name of the board of the game, the phase of the game and the time
+     * when the game was created; null if not known.
+     */
+    public final String boardName;
+    public final Phase phase;
+    public final LocalDateTime created;
+
     public GameInDB(int id, String name) {
+        this(id, name, null, null, null);
+    }
+
+    public GameInDB(int id, String name, String boardName, Phase phase, LocalDateTime created) {
         this.id = id;
         this.name = name;
+        this.boardName = boardName;
+        this.phase = phase;
+        this.created = created;
     }
 
     @Override
     public String toString() {
-        return id + ": " + name;
+        if (boardName == null || phase == null) {
+            return id + ": " + name;
+        }
+        return id + ": " + name + " (" + boardName + ", " + phase + ")";
     }
 
 }
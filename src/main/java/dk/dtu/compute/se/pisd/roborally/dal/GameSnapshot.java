@@ -0,0 +1,196 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCard;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCardField;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable copy of the state of a game, which is saved to the database.
+ * A snapshot is taken in the thread changing the game (usually the JavaFX
+ * application thread), so that it can be written to the database by
+ * another thread later, while the game goes on.
+ *
+ * Along with the state, the snapshot records which parts of the game were
+ * changed since the game was last saved (see {@link Board#isDirty()},
+ * {@link Player#isDirty()} and {@link CommandCardField#isDirty()}), so that
+ * only these parts need to be written.
+ *
+ * @param gameId the id of the game in the database (null if it is not created yet)
+ * @param boardName the name of the board of the game
+ * @param version the version of the game in the database, which this snapshot is based on
+ * @param phase the ordinal of the phase
+ * @param step the step
+ * @param currentPlayer the number of the current player
+ * @param changed whether the phase, step or current player were changed
+ * @param players the state of the players
+ * @param fields the state of the command card fields of all players; for
+ *               each player, its program fields followed by its card fields
+ */
+record GameSnapshot(Integer gameId, String boardName, int version, int phase, int step, int currentPlayer,
+					boolean changed, List<PlayerSnapshot> players, List<FieldSnapshot> fields) {
+
+	static final int FIELD_TYPE_PROGRAM = 0;
+
+	static final int FIELD_TYPE_HAND = 1;
+
+	/**
+	 * The state of a player in a {@link GameSnapshot}.
+	 *
+	 * @param name the name
+	 * @param colour the colour
+	 * @param x the x-coordinate of the player's space
+	 * @param y the y-coordinate of the player's space
+	 * @param heading the ordinal of the heading
+	 * @param changed whether the player was changed
+	 */
+	record PlayerSnapshot(String name, String colour, int x, int y, int heading, boolean changed) {
+
+		PlayerSnapshot changed(boolean changed) {
+			return changed == this.changed ? this :
+					new PlayerSnapshot(name, colour, x, y, heading, changed);
+		}
+
+	}
+
+	/**
+	 * The state of a command card field in a {@link GameSnapshot}.
+	 *
+	 * @param player the number of the player owning the field
+	 * @param type the type of the field ({@link #FIELD_TYPE_PROGRAM} or {@link #FIELD_TYPE_HAND})
+	 * @param position the position of the field in the player's program or hand
+	 * @param command the ordinal of the command of the field's card (null if there is no card)
+	 * @param visible whether the field is visible
+	 * @param changed whether the field was changed
+	 */
+	record FieldSnapshot(int player, int type, int position, Integer command, boolean visible,
+						 boolean changed) {
+
+		static FieldSnapshot of(int player, int type, int position, CommandCardField field) {
+			CommandCard card = field.getCard();
+			return new FieldSnapshot(player, type, position,
+					card != null ? card.command.ordinal() : null,
+					field.isVisible(), field.isDirty());
+		}
+
+		FieldSnapshot changed(boolean changed) {
+			return changed == this.changed ? this :
+					new FieldSnapshot(player, type, position, command, visible, changed);
+		}
+
+	}
+
+	/**
+	 * Takes a snapshot of the given game.
+	 *
+	 * @param game the game
+	 * @return the snapshot
+	 */
+	static GameSnapshot of(@NotNull Board game) {
+		List<PlayerSnapshot> players = new ArrayList<>(game.getPlayersNumber());
+		List<FieldSnapshot> fields =
+				new ArrayList<>(game.getPlayersNumber() * (Player.NO_REGISTERS + Player.NO_CARDS));
+		for (int i = 0; i < game.getPlayersNumber(); i++) {
+			Player player = game.getPlayer(i);
+			players.add(new PlayerSnapshot(player.getName(), player.getColor(),
+					player.getSpace().x, player.getSpace().y, player.getHeading().ordinal(),
+					player.isDirty()));
+			for (int j = 0; j < Player.NO_REGISTERS; j++) {
+				fields.add(FieldSnapshot.of(i, FIELD_TYPE_PROGRAM, j, player.getProgramField(j)));
+			}
+			for (int j = 0; j < Player.NO_CARDS; j++) {
+				fields.add(FieldSnapshot.of(i, FIELD_TYPE_HAND, j, player.getCardField(j)));
+			}
+		}
+		return new GameSnapshot(game.getGameId(), game.boardName, game.getVersion(),
+				game.getPhase().ordinal(), game.getStep(),
+				game.getPlayerNumber(game.getCurrentPlayer()),
+				game.isDirty(), Collections.unmodifiableList(players),
+				Collections.unmodifiableList(fields));
+	}
+
+	/**
+	 * Marks the given game and all its players and their card fields as clean,
+	 * i.e. as saved.
+	 *
+	 * @param game the game
+	 */
+	static void markClean(@NotNull Board game) {
+		game.markClean();
+		for (int i = 0; i < game.getPlayersNumber(); i++) {
+			Player player = game.getPlayer(i);
+			player.markClean();
+			for (int j = 0; j < Player.NO_REGISTERS; j++) {
+				player.getProgramField(j).markClean();
+			}
+			for (int j = 0; j < Player.NO_CARDS; j++) {
+				player.getCardField(j).markClean();
+			}
+		}
+	}
+
+	/**
+	 * Returns whether anything was changed in this snapshot.
+	 *
+	 * @return true if the game or any of its players or fields were changed
+	 */
+	boolean hasChanges() {
+		if (changed) {
+			return true;
+		}
+		for (PlayerSnapshot player : players) {
+			if (player.changed()) {
+				return true;
+			}
+		}
+		for (FieldSnapshot field : fields) {
+			if (field.changed()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a copy of this snapshot for the game with the given id and version.
+	 *
+	 * @param gameId the game id
+	 * @param version the version of the game in the database
+	 * @return the snapshot with the game id and version
+	 */
+	GameSnapshot forGame(int gameId, int version) {
+		return new GameSnapshot(gameId, boardName, version, phase, step, currentPlayer,
+				changed, players, fields);
+	}
+
+	/**
+	 * Returns a copy of this snapshot, in which everything that was changed in
+	 * this snapshot or in the given older snapshot of the same game is marked
+	 * as changed. This is used when a newer snapshot replaces an older one,
+	 * which was not saved.
+	 *
+	 * @param older the older snapshot
+	 * @return the merged snapshot
+	 */
+	GameSnapshot merge(@NotNull GameSnapshot older) {
+		List<PlayerSnapshot> mergedPlayers = new ArrayList<>(players.size());
+		for (int i = 0; i < players.size(); i++) {
+			boolean changedBefore = i >= older.players.size() || older.players.get(i).changed();
+			mergedPlayers.add(players.get(i).changed(players.get(i).changed() || changedBefore));
+		}
+		List<FieldSnapshot> mergedFields = new ArrayList<>(fields.size());
+		for (int i = 0; i < fields.size(); i++) {
+			boolean changedBefore = i >= older.fields.size() || older.fields.get(i).changed();
+			mergedFields.add(fields.get(i).changed(fields.get(i).changed() || changedBefore));
+		}
+		return new GameSnapshot(gameId, boardName, version, phase, step, currentPlayer,
+				changed || older.changed, Collections.unmodifiableList(mergedPlayers),
+				Collections.unmodifiableList(mergedFields));
+	}
+
+}
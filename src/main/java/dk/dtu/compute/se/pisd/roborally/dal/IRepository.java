@@ -41,4 +41,19 @@ public interface IRepository {
 	
 	List<GameInDB> getGames();
 
+	/**
+	 * Returns a page of the games in the database, which match the given
+	 * filter, ordered by their id from the newest to the oldest game. The
+	 * pages are obtained by keyset pagination: the next page starts after
+	 * the id of the last game of the previous page, so that every page is
+	 * obtained with an index lookup, no matter how many games there are.
+	 *
+	 * @param filter the filter for the games
+	 * @param afterId the id of the last game of the previous page, or null
+	 *                for the first page
+	 * @param limit the maximum number of games of the page
+	 * @return the games of the page
+	 */
+	List<GameInDB> getGames(GameFilter filter, Integer afterId, int limit);
+
 }
@@ -0,0 +1,150 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A connection borrowed from a {@link ConnectionPool}. It gives access to the
+ * underlying JDBC connection and keeps a cache of the prepared statements
+ * created for it, so that statements do not need to be prepared again every
+ * time the connection is borrowed. Since a pooled connection is used by one
+ * thread at a time only, the statements in the cache are never shared
+ * between threads.
+ *
+ * Closing a pooled connection returns it to its pool; the underlying
+ * connection and its statements stay open.
+ */
+class PooledConnection implements AutoCloseable {
+
+	/**
+	 * The maximum number of prepared statements cached for a connection.
+	 */
+	static final int STATEMENT_CACHE_SIZE = 32;
+
+	private final ConnectionPool pool;
+
+	private final Connection connection;
+
+	private final long created;
+
+	private long lastUsed;
+
+	private boolean borrowed = false;
+
+	private final Map<String, PreparedStatement> statements =
+			new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+					if (size() > STATEMENT_CACHE_SIZE) {
+						closeQuietly(eldest.getValue());
+						return true;
+					}
+					return false;
+				}
+			};
+
+	PooledConnection(ConnectionPool pool, Connection connection) {
+		this.pool = pool;
+		this.connection = connection;
+		this.created = System.nanoTime();
+		this.lastUsed = created;
+	}
+
+	/**
+	 * Returns the underlying JDBC connection, which can be used for transaction
+	 * control. It must not be closed by the client; use {@link #close()} in order
+	 * to return the connection to its pool.
+	 *
+	 * @return the JDBC connection
+	 */
+	Connection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * Returns a prepared statement for the given SQL, which is taken from the
+	 * cache of this connection if it was prepared before.
+	 *
+	 * @param sql the SQL statement
+	 * @return the prepared statement
+	 * @throws SQLException if the statement could not be prepared
+	 */
+	PreparedStatement prepareStatement(String sql) throws SQLException {
+		PreparedStatement statement = statements.get(sql);
+		if (statement == null || statement.isClosed()) {
+			statement = connection.prepareStatement(sql);
+			statements.put(sql, statement);
+		}
+		return statement;
+	}
+
+	/**
+	 * Returns a prepared statement for the given SQL, which makes the keys
+	 * generated by the database available, or not.
+	 *
+	 * @param sql the SQL statement
+	 * @param autoGeneratedKeys {@link java.sql.Statement#RETURN_GENERATED_KEYS} or
+	 *                          {@link java.sql.Statement#NO_GENERATED_KEYS}
+	 * @return the prepared statement
+	 * @throws SQLException if the statement could not be prepared
+	 */
+	PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+		String key = sql + "|keys:" + autoGeneratedKeys;
+		PreparedStatement statement = statements.get(key);
+		if (statement == null || statement.isClosed()) {
+			statement = connection.prepareStatement(sql, autoGeneratedKeys);
+			statements.put(key, statement);
+		}
+		return statement;
+	}
+
+	/**
+	 * Returns this connection to its pool.
+	 */
+	@Override
+	public void close() {
+		pool.release(this);
+	}
+
+	long getCreated() {
+		return created;
+	}
+
+	long getLastUsed() {
+		return lastUsed;
+	}
+
+	boolean isBorrowed() {
+		return borrowed;
+	}
+
+	void setBorrowed(boolean borrowed) {
+		this.borrowed = borrowed;
+		this.lastUsed = System.nanoTime();
+	}
+
+	/**
+	 * Closes the cached statements and the underlying connection.
+	 */
+	void closePhysically() {
+		Iterator<PreparedStatement> iterator = statements.values().iterator();
+		while (iterator.hasNext()) {
+			closeQuietly(iterator.next());
+			iterator.remove();
+		}
+		try {
+			connection.close();
+		} catch (SQLException e) {}
+	}
+
+	private static void closeQuietly(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {}
+	}
+
+}
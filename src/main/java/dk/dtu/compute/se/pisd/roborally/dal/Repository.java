@@ -23,13 +23,15 @@ package dk.dtu.compute.se.pisd.roborally.dal;
 
 import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
 import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCard;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCardField;
 import dk.dtu.compute.se.pisd.roborally.model.Heading;
 import dk.dtu.compute.se.pisd.roborally.model.Phase;
 import dk.dtu.compute.se.pisd.roborally.model.Player;
 
 import java.sql.*;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -41,6 +43,8 @@ import java.util.List;
  */
 class Repository implements IRepository {
 	
+	private static final Command[] COMMANDS = Command.values();
+
 	private static final String GAME_GAMEID = "gameID";
 
 	private static final String GAME_NAME = "name";
@@ -50,6 +54,12 @@ class Repository implements IRepository {
 	private static final String GAME_PHASE = "phase";
 
 	private static final String GAME_STEP = "step";
+
+	private static final String GAME_VERSION = "version";
+
+	private static final String GAME_BOARDNAME = "boardName";
+
+	private static final String GAME_CREATED = "created";
 	
 	private static final String PLAYER_PLAYERID = "playerID";
 	
@@ -65,60 +75,60 @@ class Repository implements IRepository {
 
 	private static final String PLAYER_HEADING = "heading";
 
+	private static final String FIELD_PLAYERID = "playerID";
+
+	private static final String FIELD_TYPE = "type";
+
+	private static final String FIELD_POSITION = "position";
+
+	private static final String FIELD_COMMAND = "command";
+
+	private static final String FIELD_VISIBLE = "visible";
+
 	private Connector connector;
 	
 	Repository(Connector connector){
 		this.connector = connector;
 	}
 
-	boolean isAlive() {
-		boolean result;
-        try {
-            result = connector.getConnection().isValid(5);
-        } catch (Exception e) {
-			result = false;
-        }
-		if (!result) {
-			List<PreparedStatement> psList = Arrays.asList(
-					select_games_stmt,
-					insert_game_stmt,
-					select_game_stmt,
-					select_players_stmt,
-					select_players_asc_stmt);
-			for (PreparedStatement ps : psList) {
-				if (ps != null) {
-					try {
-						ps.close();
-					} catch (SQLException ex) {}
-				}
-			}
-
-			Connection connection = connector.getConnection();
-			if (connection != null) {
-				try {
-					connection.close();
-				} catch (SQLException ex) {}
-			}
-		}
-
-		return result;
-    }
-
 	@Override
 	public boolean createGameInDB(Board game) {
 		if (game.getGameId() == null) {
-			Connection connection = connector.getConnection();
+			Integer id = createGameInDB(GameSnapshot.of(game));
+			if (id != null) {
+				game.setGameId(id);
+				game.setVersion(0);
+				GameSnapshot.markClean(game);
+				return true;
+			}
+		} else {
+			System.err.println("Game cannot be created in DB, since it has a game id already!");
+		}
+		return false;
+	}
+
+	/**
+	 * Creates a game in the database from a snapshot of the game.
+	 *
+	 * @param game the snapshot of the game
+	 * @return the id of the new game in the database, or null if the
+	 * game could not be created
+	 */
+	Integer createGameInDB(GameSnapshot game) {
+		try (PooledConnection pooled = connector.getConnection()) {
+			Connection connection = pooled.getConnection();
 			try {
 				connection.setAutoCommit(false);
 
-				PreparedStatement ps = getInsertGameStatementRGK();
+				PreparedStatement ps = getInsertGameStatementRGK(pooled);
 				// TODO: the name should eventually be set by the user
 				//       for the game and should be then obtained by
 				//       game.getName();
 				ps.setString(1, "Date: " +  new Date()); // instead of name
 				ps.setNull(2, Types.TINYINT); // game.getPlayerNumber(game.getCurrentPlayer())); is inserted after players!
-				ps.setInt(3, game.getPhase().ordinal());
-				ps.setInt(4, game.getStep());
+				ps.setInt(3, game.phase());
+				ps.setInt(4, game.step());
+				ps.setString(5, game.boardName());
 
 				// If you have a foreign key constraint for current players,
 				// the check would need to be temporarily disabled, since
@@ -126,47 +136,39 @@ class Repository implements IRepository {
 				// validates on a per row basis.
 				// Statement statement = connection.createStatement();
 				// statement.execute("SET foreign_key_checks = 0");
-				
+
 				int affectedRows = ps.executeUpdate();
 				ResultSet generatedKeys = ps.getGeneratedKeys();
+				Integer id = null;
 				if (affectedRows == 1 && generatedKeys.next()) {
-					game.setGameId(generatedKeys.getInt(1));
+					id = generatedKeys.getInt(1);
 				}
 				generatedKeys.close();
-				
+				if (id == null) {
+					throw new SQLException("No id was generated for the game");
+				}
+
 				// Enable foreign key constraint check again:
 				// statement.execute("SET foreign_key_checks = 1");
 				// statement.close();
 
-				createPlayersInDB(game);
-				/* TODO V4a: this method needs to be implemented first
-				createCardFieldsInDB(game);
-				 */
+				createPlayersInDB(pooled, id, game);
+				createCardFieldsInDB(pooled, id, game);
 
 				// since current player is a foreign key, it can only be
 				// inserted after the players are created, since MySQL does
 				// not have a per transaction validation, but validates on
 				// a per row basis.
-				ps = getSelectGameStatementU();
-				ps.setInt(1, game.getGameId());
-
-				ResultSet rs = ps.executeQuery();
-				if (rs.next()) {
-					rs.updateInt(GAME_CURRENTPLAYER, game.getPlayerNumber(game.getCurrentPlayer()));
-					rs.updateRow();
-				} else {
-					// TODO error handling
-				}
-				rs.close();
+				updateGameRowInDB(pooled, id, game);
 
 				connection.commit();
 				connection.setAutoCommit(true);
-				return true;
+				return id;
 			} catch (SQLException e) {
 				// TODO error handling
 				e.printStackTrace();
 				System.err.println("Some DB error");
-				
+
 				try {
 					connection.rollback();
 					connection.setAutoCommit(true);
@@ -175,54 +177,80 @@ class Repository implements IRepository {
 					e1.printStackTrace();
 				}
 			}
-		} else {
-			System.err.println("Game cannot be created in DB, since it has a game id already!");
+		} catch (SQLException e) {
+			e.printStackTrace();
+			System.err.println("No connection to the DB");
 		}
-		return false;
+		return null;
 	}
 		
 	@Override
 	public boolean updateGameInDB(Board game) {
 		assert game.getGameId() != null;
-		
-		Connection connection = connector.getConnection();
-		try {
-			connection.setAutoCommit(false);
 
-			PreparedStatement ps = getSelectGameStatementU();
-			ps.setInt(1, game.getGameId());
-			
-			ResultSet rs = ps.executeQuery();
-			if (rs.next()) {
-				rs.updateInt(GAME_CURRENTPLAYER, game.getPlayerNumber(game.getCurrentPlayer()));
-				rs.updateInt(GAME_PHASE, game.getPhase().ordinal());
-				rs.updateInt(GAME_STEP, game.getStep());
-				rs.updateRow();
-			} else {
-				// TODO error handling
+		GameSnapshot snapshot = GameSnapshot.of(game);
+		if (!snapshot.hasChanges()) {
+			return true;
+		}
+		try {
+			if (updateGameInDB(snapshot)) {
+				game.setVersion(snapshot.version() + 1);
+				GameSnapshot.markClean(game);
+				return true;
 			}
-			rs.close();
-
-			updatePlayersInDB(game);
-			/* TODO V4a: this method needs to be implemented first
-			updateCardFieldsInDB(game);
-			*/
+		} catch (StaleGameException e) {
+			// TODO error handling (the user should be told that the game
+			//      was saved by someone else in the meantime)
+			System.err.println(e.getMessage());
+		}
+		return false;
+	}
 
-            connection.commit();
-            connection.setAutoCommit(true);
-			return true;
-		} catch (SQLException e) {
-			// TODO error handling
-			e.printStackTrace();
-			System.err.println("Some DB error");
-			
+	/**
+	 * Updates a game in the database from a snapshot of the game. Only the
+	 * parts of the game which are marked as changed in the snapshot are
+	 * written; the version of the game in the database is incremented.
+	 *
+	 * @param game the snapshot of the game, which must have a game id
+	 * @return true if the game was updated, false otherwise
+	 * @throws StaleGameException if the game in the database does not have
+	 *         the version of the snapshot (or does not exist)
+	 */
+	boolean updateGameInDB(GameSnapshot game) {
+		assert game.gameId() != null;
+
+		try (PooledConnection pooled = connector.getConnection()) {
+			Connection connection = pooled.getConnection();
 			try {
-				connection.rollback();
+				connection.setAutoCommit(false);
+
+				if (!updateGameVersionInDB(pooled, game.gameId(), game)) {
+					connection.rollback();
+					connection.setAutoCommit(true);
+					throw new StaleGameException(game.gameId(), game.version());
+				}
+				updatePlayersInDB(pooled, game.gameId(), game);
+				updateCardFieldsInDB(pooled, game.gameId(), game);
+
+				connection.commit();
 				connection.setAutoCommit(true);
-			} catch (SQLException e1) {
+				return true;
+			} catch (SQLException e) {
 				// TODO error handling
-				e1.printStackTrace();
+				e.printStackTrace();
+				System.err.println("Some DB error");
+
+				try {
+					connection.rollback();
+					connection.setAutoCommit(true);
+				} catch (SQLException e1) {
+					// TODO error handling
+					e1.printStackTrace();
+				}
 			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+			System.err.println("No connection to the DB");
 		}
 
 		return false;
@@ -231,20 +259,16 @@ class Repository implements IRepository {
 	@Override
 	public Board loadGameFromDB(int id) {
 		Board game;
-		try {
-			// XXX here, we could actually use a simpler statement
-			//     which is not updatable, but we reuse the one from
-			//     above for simplicity
-			PreparedStatement ps = getSelectGameStatementU();
+		try (PooledConnection pooled = connector.getConnection()) {
+			PreparedStatement ps = getSelectGameStatement(pooled);
 			ps.setInt(1, id);
 			
 			ResultSet rs = ps.executeQuery();
 			int playerNo = -1;
 			if (rs.next()) {
-				// TODO V4b: and we should also store the name of the used game board
-				//      in the database, and load the corresponding board from the
-				//      JSON file. For now, we use the default game board.
-				game = BoardFactory.getInstance().createBoard(null);
+				// the layout of the board is shared with all games on the same
+				// board, so only the state of the game needs to be loaded
+				game = BoardFactory.getInstance().createBoard(rs.getString(GAME_BOARDNAME));
 				if (game == null) {
 					return null;
 				}
@@ -252,6 +276,7 @@ class Repository implements IRepository {
 				// TODO currently we do not set the games name (needs to be added)
 				game.setPhase(Phase.values()[rs.getInt(GAME_PHASE)]);
 				game.setStep(rs.getInt(GAME_STEP));
+				game.setVersion(rs.getInt(GAME_VERSION));
 			} else {
 				// TODO error handling
 				return null;
@@ -259,7 +284,7 @@ class Repository implements IRepository {
 			rs.close();
 
 			game.setGameId(id);			
-			loadPlayersFromDB(game);
+			loadPlayersFromDB(pooled, game);
 
 			if (playerNo >= 0 && playerNo < game.getPlayersNumber()) {
 				game.setCurrentPlayer(game.getPlayer(playerNo));
@@ -268,10 +293,9 @@ class Repository implements IRepository {
 				return null;
 			}
 
-			/* TODO V4a: this method needs to be implemented first
-			loadCardFieldsFromDB(game);
-			*/
+			loadCardFieldsFromDB(pooled, game);
 
+			GameSnapshot.markClean(game);
 			return game;
 		} catch (SQLException e) {
 			// TODO error handling
@@ -283,13 +307,12 @@ class Repository implements IRepository {
 	
 	@Override
 	public List<GameInDB> getGames() {
-		// TODO when there are many games in the DB, fetching all available games
-		//      from the DB is a bit extreme; eventually there should a
-		//      method that can filter the returned games in order to
-		//      reduce the number of the returned games.
+		// When there are many games in the DB, fetching all available games
+		// from the DB is a bit extreme; getGames(GameFilter, Integer, int)
+		// should be used instead.
 		List<GameInDB> result = new ArrayList<>();
-		try {
-			PreparedStatement ps = getSelectGameIdsStatement();
+		try (PooledConnection pooled = connector.getConnection()) {
+			PreparedStatement ps = getSelectGameIdsStatement(pooled);
 			ResultSet rs = ps.executeQuery();
 			while (rs.next()) {
 				int id = rs.getInt(GAME_GAMEID);
@@ -304,30 +327,97 @@ class Repository implements IRepository {
 		return result;		
 	}
 
-	private void createPlayersInDB(Board game) throws SQLException {
-		// TODO code should be more defensive
-		PreparedStatement ps = getSelectPlayersStatementU();
-		ps.setInt(1, game.getGameId());
-		
-		ResultSet rs = ps.executeQuery();
-		for (int i = 0; i < game.getPlayersNumber(); i++) {
-			Player player = game.getPlayer(i);
-			rs.moveToInsertRow();
-			rs.updateInt(PLAYER_GAMEID, game.getGameId());
-			rs.updateInt(PLAYER_PLAYERID, i);
-			rs.updateString(PLAYER_NAME, player.getName());
-			rs.updateString(PLAYER_COLOUR, player.getColor());
-			rs.updateInt(PLAYER_POSITION_X, player.getSpace().x);
-			rs.updateInt(PLAYER_POSITION_Y, player.getSpace().y);
-			rs.updateInt(PLAYER_HEADING, player.getHeading().ordinal());
-			rs.insertRow();
+	@Override
+	public List<GameInDB> getGames(GameFilter filter, Integer afterId, int limit) {
+		List<GameInDB> result = new ArrayList<>();
+		try (PooledConnection pooled = connector.getConnection()) {
+			PreparedStatement ps = getSelectGamesPageStatement(pooled, filter);
+			int i = 1;
+			ps.setInt(i++, afterId != null ? afterId : Integer.MAX_VALUE);
+			if (filter.phase() != null) {
+				ps.setInt(i++, filter.phase().ordinal());
+			}
+			if (filter.boardName() != null) {
+				ps.setString(i++, filter.boardName());
+			}
+			if (filter.createdFrom() != null) {
+				ps.setTimestamp(i++, Timestamp.valueOf(filter.createdFrom()));
+			}
+			if (filter.createdTo() != null) {
+				ps.setTimestamp(i++, Timestamp.valueOf(filter.createdTo()));
+			}
+			ps.setInt(i, limit);
+
+			ResultSet rs = ps.executeQuery();
+			while (rs.next()) {
+				int phase = rs.getInt(GAME_PHASE);
+				Timestamp created = rs.getTimestamp(GAME_CREATED);
+				result.add(new GameInDB(
+						rs.getInt(GAME_GAMEID),
+						rs.getString(GAME_NAME),
+						rs.getString(GAME_BOARDNAME),
+						phase >= 0 && phase < Phase.values().length ? Phase.values()[phase] : null,
+						created != null ? created.toLocalDateTime() : null));
+			}
+			rs.close();
+		} catch (SQLException e) {
+			// TODO proper error handling
+			e.printStackTrace();
 		}
+		return result;
+	}
 
-		rs.close();
+	private void updateGameRowInDB(PooledConnection pooled, int gameId, GameSnapshot game) throws SQLException {
+		PreparedStatement ps = getUpdateGameStatement(pooled);
+		ps.setInt(1, game.currentPlayer());
+		ps.setInt(2, game.phase());
+		ps.setInt(3, game.step());
+		ps.setInt(4, gameId);
+		if (ps.executeUpdate() != 1) {
+			throw new SQLException("Game " + gameId + " does not exist in DB");
+		}
+	}
+
+	private boolean updateGameVersionInDB(PooledConnection pooled, int gameId, GameSnapshot game) throws SQLException {
+		// The version of the game is always incremented, even if only some
+		// players were changed, so that concurrent saves of the same game
+		// are detected (optimistic locking)
+		PreparedStatement ps;
+		if (game.changed()) {
+			ps = getUpdateGameVersionStatement(pooled);
+			ps.setInt(1, game.currentPlayer());
+			ps.setInt(2, game.phase());
+			ps.setInt(3, game.step());
+			ps.setInt(4, gameId);
+			ps.setInt(5, game.version());
+		} else {
+			ps = getIncrementVersionStatement(pooled);
+			ps.setInt(1, gameId);
+			ps.setInt(2, game.version());
+		}
+		return ps.executeUpdate() == 1;
+	}
+
+	private void createPlayersInDB(PooledConnection pooled, int gameId, GameSnapshot game) throws SQLException {
+		// All players are inserted in a single batch, which is sent to the
+		// database in one round trip
+		PreparedStatement ps = getInsertPlayerStatement(pooled);
+		for (int i = 0; i < game.players().size(); i++) {
+			GameSnapshot.PlayerSnapshot player = game.players().get(i);
+			ps.setInt(1, gameId);
+			ps.setInt(2, i);
+			ps.setString(3, player.name());
+			ps.setString(4, player.colour());
+			ps.setInt(5, player.x());
+			ps.setInt(6, player.y());
+			ps.setInt(7, player.heading());
+			ps.addBatch();
+		}
+		checkBatch(ps.executeBatch(), gameId);
 	}
 	
-	private void loadPlayersFromDB(Board game) throws SQLException {
-		PreparedStatement ps = getSelectPlayersASCStatement();
+	private void loadPlayersFromDB(PooledConnection pooled, Board game) throws SQLException {
+		PreparedStatement ps = getSelectPlayersASCStatement(pooled);
 		ps.setInt(1, game.getGameId());
 		
 		ResultSet rs = ps.executeQuery();
@@ -354,127 +444,256 @@ class Repository implements IRepository {
 		rs.close();
 	}
 	
-	private void updatePlayersInDB(Board game) throws SQLException {
-		PreparedStatement ps = getSelectPlayersStatementU();
+	private void updatePlayersInDB(PooledConnection pooled, int gameId, GameSnapshot game) throws SQLException {
+		// All changed players are updated in a single batch, which is sent
+		// to the database in one round trip
+		PreparedStatement ps = getUpdatePlayerStatement(pooled);
+		boolean changed = false;
+		for (int i = 0; i < game.players().size(); i++) {
+			GameSnapshot.PlayerSnapshot player = game.players().get(i);
+			if (!player.changed()) {
+				continue;
+			}
+			changed = true;
+			ps.setString(1, player.name());
+			ps.setString(2, player.colour());
+			ps.setInt(3, player.x());
+			ps.setInt(4, player.y());
+			ps.setInt(5, player.heading());
+			ps.setInt(6, gameId);
+			ps.setInt(7, i);
+			ps.addBatch();
+		}
+		// TODO take care of case when number of players changes, etc
+		if (changed) {
+			checkBatch(ps.executeBatch(), gameId);
+		}
+	}
+
+	private void createCardFieldsInDB(PooledConnection pooled, int gameId, GameSnapshot game) throws SQLException {
+		// All card fields of all players are inserted in a single batch
+		PreparedStatement ps = getInsertCardFieldStatement(pooled);
+		for (GameSnapshot.FieldSnapshot field : game.fields()) {
+			ps.setInt(1, gameId);
+			ps.setInt(2, field.player());
+			ps.setInt(3, field.type());
+			ps.setInt(4, field.position());
+			setCommand(ps, 5, field);
+			ps.setBoolean(6, field.visible());
+			ps.addBatch();
+		}
+		checkBatch(ps.executeBatch(), gameId);
+	}
+
+	private void updateCardFieldsInDB(PooledConnection pooled, int gameId, GameSnapshot game) throws SQLException {
+		// All changed card fields are updated in a single batch
+		PreparedStatement ps = getUpdateCardFieldStatement(pooled);
+		boolean changed = false;
+		for (GameSnapshot.FieldSnapshot field : game.fields()) {
+			if (!field.changed()) {
+				continue;
+			}
+			changed = true;
+			setCommand(ps, 1, field);
+			ps.setBoolean(2, field.visible());
+			ps.setInt(3, gameId);
+			ps.setInt(4, field.player());
+			ps.setInt(5, field.type());
+			ps.setInt(6, field.position());
+			ps.addBatch();
+		}
+		if (changed) {
+			checkBatch(ps.executeBatch(), gameId);
+		}
+	}
+
+	private void setCommand(PreparedStatement ps, int index, GameSnapshot.FieldSnapshot field) throws SQLException {
+		if (field.command() != null) {
+			ps.setInt(index, field.command());
+		} else {
+			ps.setNull(index, Types.TINYINT);
+		}
+	}
+
+	private void loadCardFieldsFromDB(PooledConnection pooled, Board game) throws SQLException {
+		// The card fields of all players are loaded with a single query
+		PreparedStatement ps = getSelectCardFieldsStatement(pooled);
 		ps.setInt(1, game.getGameId());
-		
+
 		ResultSet rs = ps.executeQuery();
 		while (rs.next()) {
-			int playerId = rs.getInt(PLAYER_PLAYERID);
-			// TODO should be more defensive
+			int playerId = rs.getInt(FIELD_PLAYERID);
+			int type = rs.getInt(FIELD_TYPE);
+			int position = rs.getInt(FIELD_POSITION);
+			if (playerId < 0 || playerId >= game.getPlayersNumber()) {
+				// TODO error handling
+				System.err.println("Game in DB does not have a player with id " + playerId + "!");
+				continue;
+			}
 			Player player = game.getPlayer(playerId);
-			// rs.updateString(PLAYER_NAME, player.getName()); // not needed: player's names does not change
-			rs.updateInt(PLAYER_POSITION_X, player.getSpace().x);
-			rs.updateInt(PLAYER_POSITION_Y, player.getSpace().y);
-			rs.updateInt(PLAYER_HEADING, player.getHeading().ordinal());
-			// TODO error handling
-			// TODO take care of case when number of players changes, etc
-			rs.updateRow();
+			CommandCardField field;
+			if (type == GameSnapshot.FIELD_TYPE_PROGRAM && position >= 0 && position < Player.NO_REGISTERS) {
+				field = player.getProgramField(position);
+			} else if (type == GameSnapshot.FIELD_TYPE_HAND && position >= 0 && position < Player.NO_CARDS) {
+				field = player.getCardField(position);
+			} else {
+				// TODO error handling
+				System.err.println("Game in DB has an invalid card field " + type + "/" + position + "!");
+				continue;
+			}
+			int command = rs.getInt(FIELD_COMMAND);
+			if (rs.wasNull()) {
+				field.setCard(null);
+			} else {
+				field.setCard(CommandCard.of(COMMANDS[command]));
+			}
+			field.setVisible(rs.getBoolean(FIELD_VISIBLE));
 		}
 		rs.close();
-		
-		// TODO error handling/consistency check: check whether all players were updated
 	}
 
+	private void checkBatch(int[] counts, int gameId) throws SQLException {
+		for (int i = 0; i < counts.length; i++) {
+			// rewritten batches (MySQL) do not report counts per row
+			if (counts[i] == 0 || counts[i] == Statement.EXECUTE_FAILED) {
+				throw new SQLException("Not all rows of game " + gameId + " were written to DB");
+			}
+		}
+	}
+
+	// The prepared statements are cached by the pooled connections, so that
+	// they are prepared only once for every connection of the pool.
+
 	private static final String SQL_INSERT_GAME =
-			"INSERT INTO Game(name, currentPlayer, phase, step) VALUES (?, ?, ?, ?)";
+			"INSERT INTO Game(name, currentPlayer, phase, step, boardName) VALUES (?, ?, ?, ?, ?)";
 
-	private PreparedStatement insert_game_stmt = null;
+	private PreparedStatement getInsertGameStatementRGK(PooledConnection pooled) throws SQLException {
+		return pooled.prepareStatement(
+				SQL_INSERT_GAME,
+				Statement.RETURN_GENERATED_KEYS);
+	}
 
-	private PreparedStatement getInsertGameStatementRGK() {
-		if (insert_game_stmt == null) {
-			Connection connection = connector.getConnection();
-			try {
-				insert_game_stmt = connection.prepareStatement(
-						SQL_INSERT_GAME,
-						Statement.RETURN_GENERATED_KEYS);
-			} catch (SQLException e) {
-				// TODO error handling
-				e.printStackTrace();
-			}
-		}
-		return insert_game_stmt;
+	private static final String SQL_UPDATE_GAME =
+			"UPDATE Game SET currentPlayer = ?, phase = ?, step = ? WHERE gameID = ?";
+
+	private PreparedStatement getUpdateGameStatement(PooledConnection pooled) throws SQLException {
+		return pooled.prepareStatement(
+				SQL_UPDATE_GAME);
+	}
+
+	private static final String SQL_UPDATE_GAME_VERSION =
+			"UPDATE Game SET currentPlayer = ?, phase = ?, step = ?, version = version + 1 " +
+			"WHERE gameID = ? AND version = ?";
+
+	private PreparedStatement getUpdateGameVersionStatement(PooledConnection pooled) throws SQLException {
+		return pooled.prepareStatement(
+				SQL_UPDATE_GAME_VERSION);
+	}
+
+	private static final String SQL_INCREMENT_VERSION =
+			"UPDATE Game SET version = version + 1 WHERE gameID = ? AND version = ?";
+
+	private PreparedStatement getIncrementVersionStatement(PooledConnection pooled) throws SQLException {
+		return pooled.prepareStatement(
+				SQL_INCREMENT_VERSION);
 	}
 
 	private static final String SQL_SELECT_GAME =
 			"SELECT * FROM Game WHERE gameID = ?";
 	
-	private PreparedStatement select_game_stmt = null;
-	
-	private PreparedStatement getSelectGameStatementU() {
-		if (select_game_stmt == null) {
-			Connection connection = connector.getConnection();
-			try {
-				select_game_stmt = connection.prepareStatement(
-						SQL_SELECT_GAME,
-						ResultSet.TYPE_FORWARD_ONLY,
-					    ResultSet.CONCUR_UPDATABLE);
-			} catch (SQLException e) {
-				// TODO error handling
-				e.printStackTrace();
-			}
-		}
-		return select_game_stmt;
+	private PreparedStatement getSelectGameStatement(PooledConnection pooled) throws SQLException {
+		return pooled.prepareStatement(
+				SQL_SELECT_GAME);
 	}
 		
-	private static final String SQL_SELECT_PLAYERS =
-			"SELECT * FROM Player WHERE gameID = ?";
+	private static final String SQL_INSERT_PLAYER =
+			"INSERT INTO Player(gameID, playerID, name, colour, positionX, positionY, heading) " +
+			"VALUES (?, ?, ?, ?, ?, ?, ?)";
 
-	private PreparedStatement select_players_stmt = null;
+	private PreparedStatement getInsertPlayerStatement(PooledConnection pooled) throws SQLException {
+		return pooled.prepareStatement(
+				SQL_INSERT_PLAYER);
+	}
 
-	private PreparedStatement getSelectPlayersStatementU() {
-		if (select_players_stmt == null) {
-			Connection connection = connector.getConnection();
-			try {
-				select_players_stmt = connection.prepareStatement(
-						SQL_SELECT_PLAYERS,
-						ResultSet.TYPE_FORWARD_ONLY,
-						ResultSet.CONCUR_UPDATABLE);
-			} catch (SQLException e) {
-				// TODO error handling
-				e.printStackTrace();
-			}
-		}
-		return select_players_stmt;
+	private static final String SQL_UPDATE_PLAYER =
+			"UPDATE Player SET name = ?, colour = ?, positionX = ?, positionY = ?, heading = ? " +
+			"WHERE gameID = ? AND playerID = ?";
+
+	private PreparedStatement getUpdatePlayerStatement(PooledConnection pooled) throws SQLException {
+		return pooled.prepareStatement(
+				SQL_UPDATE_PLAYER);
 	}
 
 	private static final String SQL_SELECT_PLAYERS_ASC =
 			"SELECT * FROM Player WHERE gameID = ? ORDER BY playerID ASC";
 	
-	private PreparedStatement select_players_asc_stmt = null;
-	
-	private PreparedStatement getSelectPlayersASCStatement() {
-		if (select_players_asc_stmt == null) {
-			Connection connection = connector.getConnection();
-			try {
-				// This statement does not need to be updatable
-				select_players_asc_stmt = connection.prepareStatement(
-						SQL_SELECT_PLAYERS_ASC);
-			} catch (SQLException e) {
-				// TODO error handling
-				e.printStackTrace();
-			}
-		}
-		return select_players_asc_stmt;
+	private PreparedStatement getSelectPlayersASCStatement(PooledConnection pooled) throws SQLException {
+		// This statement does not need to be updatable
+		return pooled.prepareStatement(
+				SQL_SELECT_PLAYERS_ASC);
 	}
 	
+	private static final String SQL_INSERT_CARD_FIELD =
+			"INSERT INTO CardField(gameID, playerID, type, position, command, visible) " +
+			"VALUES (?, ?, ?, ?, ?, ?)";
+
+	private PreparedStatement getInsertCardFieldStatement(PooledConnection pooled) throws SQLException {
+		return pooled.prepareStatement(
+				SQL_INSERT_CARD_FIELD);
+	}
+
+	private static final String SQL_UPDATE_CARD_FIELD =
+			"UPDATE CardField SET command = ?, visible = ? " +
+			"WHERE gameID = ? AND playerID = ? AND type = ? AND position = ?";
+
+	private PreparedStatement getUpdateCardFieldStatement(PooledConnection pooled) throws SQLException {
+		return pooled.prepareStatement(
+				SQL_UPDATE_CARD_FIELD);
+	}
+
+	private static final String SQL_SELECT_CARD_FIELDS =
+			"SELECT * FROM CardField WHERE gameID = ?";
+
+	private PreparedStatement getSelectCardFieldsStatement(PooledConnection pooled) throws SQLException {
+		return pooled.prepareStatement(
+				SQL_SELECT_CARD_FIELDS);
+	}
+
 	private static final String SQL_SELECT_GAMES =
 			"SELECT gameID, name FROM Game";
 	
-	private PreparedStatement select_games_stmt = null;
-	
-	private PreparedStatement getSelectGameIdsStatement() {
-		if (select_games_stmt == null) {
-			Connection connection = connector.getConnection();
-			try {
-				select_games_stmt = connection.prepareStatement(
-						SQL_SELECT_GAMES);
-			} catch (SQLException e) {
-				// TODO error handling
-				e.printStackTrace();
-			}
+	private PreparedStatement getSelectGameIdsStatement(PooledConnection pooled) throws SQLException {
+		return pooled.prepareStatement(
+				SQL_SELECT_GAMES);
+	}
+
+	// The games are paginated by their id (keyset pagination) instead of an
+	// OFFSET, so that the database does not need to skip all the games of
+	// the previous pages. With the indexes on (phase, gameID) and (boardName,
+	// gameID), a filtered page is read from the index in the order of the ids.
+
+	private static final String SQL_SELECT_GAMES_PAGE =
+			"SELECT gameID, name, boardName, phase, created FROM Game WHERE gameID < ?";
+
+	private PreparedStatement getSelectGamesPageStatement(PooledConnection pooled, GameFilter filter) throws SQLException {
+		// There is one statement for every combination of criteria used in
+		// the filter, so that each of them is prepared (and cached) once
+		StringBuilder sql = new StringBuilder(SQL_SELECT_GAMES_PAGE);
+		if (filter.phase() != null) {
+			sql.append(" AND phase = ?");
+		}
+		if (filter.boardName() != null) {
+			sql.append(" AND boardName = ?");
+		}
+		if (filter.createdFrom() != null) {
+			sql.append(" AND created >= ?");
+		}
+		if (filter.createdTo() != null) {
+			sql.append(" AND created < ?");
 		}
-		return select_games_stmt;
+		sql.append(" ORDER BY gameID DESC LIMIT ?");
+		return pooled.prepareStatement(
+				sql.toString());
 	}
 
 }
@@ -29,13 +29,53 @@ package dk.dtu.compute.se.pisd.roborally.dal;
  */
 public class RepositoryAccess {
     
+	private static final String PATH_TO_PROPFILE = "properties/db.properties";
+
 	private static Repository repository;
-	
+
+	private static WriteBehindRepository writeBehindRepository;
+
+	/**
+	 * Returns the repository for the database configured in the file
+	 * <code>db.properties</code>. The repository uses a pool of
+	 * connections, which replaces broken connections by itself, so that
+	 * the repository is created only once.
+	 *
+	 * @return the repository
+	 */
 	public static IRepository getRepository() {
-		if (repository == null || !repository.isAlive()) {
+		return repository();
+	}
+
+	private static synchronized Repository repository() {
+		if (repository == null) {
 			repository = new Repository(new Connector());
 		}
 		return repository;
 	}
+
+	/**
+	 * Returns a repository, which saves games to the database configured
+	 * in the file <code>db.properties</code> in the background.
+	 *
+	 * @return the write-behind repository
+	 */
+	public static synchronized WriteBehindRepository getWriteBehindRepository() {
+		if (writeBehindRepository == null) {
+			writeBehindRepository = new WriteBehindRepository(
+					RepositoryAccess::repository, WriteBehindRepository.DEFAULT_MAX_DELAY);
+		}
+		return writeBehindRepository;
+	}
+
+	/**
+	 * Returns whether a database is configured, i.e. whether there is a file
+	 * <code>db.properties</code> in the resources.
+	 *
+	 * @return true if a database is configured
+	 */
+	public static boolean isConfigured() {
+		return RepositoryAccess.class.getClassLoader().getResource(PATH_TO_PROPFILE) != null;
+	}
 	
 }
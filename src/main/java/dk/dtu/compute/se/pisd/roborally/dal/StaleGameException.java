@@ -0,0 +1,14 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+/**
+ * Thrown when a game is saved, which was saved by someone else in the
+ * meantime (or deleted), i.e. when the version of the game in the database
+ * is not the version the saved state is based on.
+ */
+class StaleGameException extends RuntimeException {
+
+	StaleGameException(int gameId, int version) {
+		super("Game " + gameId + " does not exist in DB with version " + version);
+	}
+
+}
@@ -0,0 +1,242 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Saves games to the database in the background (write-behind), so that
+ * saving a game never blocks the thread playing the game. Saving a game
+ * only takes a {@link GameSnapshot} of it; the snapshots are written to the
+ * database by a background thread at most {@link #getMaxDelay()} milliseconds
+ * later. When the same game is saved several times before it is written,
+ * only its latest snapshot is written. Only the parts of a game which were
+ * changed since it was last saved are written; when a game was saved by
+ * someone else in the meantime, its snapshot is dropped (see
+ * {@link StaleGameException}) and the {@link ConflictListener} is informed.
+ *
+ * When a snapshot could not be written (for example, because the database
+ * is not available), it is written again later; the delay is doubled with
+ * every failed attempt, up to {@link #MAX_RETRY_DELAY} milliseconds.
+ *
+ * Games which are not in the database yet are created there when they are
+ * written for the first time; then, the id of the game is set by the
+ * background thread.
+ *
+ * Before the application exits, {@link #shutdown()} should be called, so that
+ * all pending snapshots are written.
+ */
+public class WriteBehindRepository {
+
+	static final long DEFAULT_MAX_DELAY = 500;
+
+	static final long MIN_RETRY_DELAY = 100;
+
+	static final long MAX_RETRY_DELAY = 30000;
+
+	/**
+	 * A callback which is informed when a game could not be saved, since it
+	 * was saved by someone else in the meantime.
+	 */
+	@FunctionalInterface
+	public interface ConflictListener {
+
+		/**
+		 * Called by the background thread, when the changes of the given game
+		 * were dropped, since the game was saved by someone else in the
+		 * meantime.
+		 *
+		 * @param game the game whose changes were not saved
+		 */
+		void gameSavedElsewhere(@NotNull Board game);
+
+	}
+
+	private final Supplier<Repository> repositorySupplier;
+
+	private final long maxDelay;
+
+	private final Map<Board, GameSnapshot> pending = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+	private final ScheduledThreadPoolExecutor executor =
+			new ScheduledThreadPoolExecutor(1, runnable -> {
+				Thread thread = new Thread(runnable, "RoboRally write-behind");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	private volatile ConflictListener conflictListener;
+
+	// only accessed by the background thread
+	private Repository repository;
+
+	// only accessed by the background thread
+	private int failedAttempts = 0;
+
+	/**
+	 * Creates a write-behind repository for the repository obtained from
+	 * the given supplier. The supplier is called in the background thread
+	 * when the first game is written, so that connecting to the database
+	 * does not block the caller either.
+	 *
+	 * @param repositorySupplier the supplier of the repository
+	 * @param maxDelay the maximum time in milliseconds after which a saved
+	 *                 game is written to the database
+	 */
+	WriteBehindRepository(@NotNull Supplier<Repository> repositorySupplier, long maxDelay) {
+		this.repositorySupplier = repositorySupplier;
+		this.maxDelay = maxDelay;
+		// pending snapshots are written by shutdown() anyway
+		executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+	}
+
+	/**
+	 * Saves the current state of the given game. This method must be called
+	 * from the thread changing the game; it only takes a snapshot of the game
+	 * and returns immediately.
+	 *
+	 * @param game the game to be saved
+	 */
+	public void saveGame(@NotNull Board game) {
+		if (executor.isShutdown()) {
+			throw new IllegalStateException("The repository is shut down already");
+		}
+		GameSnapshot snapshot = GameSnapshot.of(game);
+		GameSnapshot.markClean(game);
+		// the changes of a replaced snapshot are not written yet
+		pending.merge(game, snapshot, (older, newer) -> newer.merge(older));
+		if (scheduled.compareAndSet(false, true)) {
+			executor.schedule(this::writePending, maxDelay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Writes all pending snapshots to the database, and waits until they
+	 * are written.
+	 */
+	public void flush() {
+		if (executor.isShutdown()) {
+			return;
+		}
+		try {
+			executor.submit(this::writePending).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * Writes all pending snapshots to the database and stops the background
+	 * thread. Games cannot be saved anymore afterwards.
+	 */
+	public void shutdown() {
+		flush();
+		executor.shutdown();
+		try {
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Sets the listener, which is informed when a game could not be saved,
+	 * since it was saved by someone else in the meantime. Note that the
+	 * listener is called by the background thread.
+	 *
+	 * @param conflictListener the listener; null if nobody should be informed
+	 */
+	public void setConflictListener(ConflictListener conflictListener) {
+		this.conflictListener = conflictListener;
+	}
+
+	/**
+	 * @return the maximum time in milliseconds after which a saved game is written
+	 */
+	public long getMaxDelay() {
+		return maxDelay;
+	}
+
+	/**
+	 * @return the number of games with snapshots which are not written yet
+	 */
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+	private void writePending() {
+		scheduled.set(false);
+		boolean failed = false;
+		for (Board game : new ArrayList<>(pending.keySet())) {
+			GameSnapshot snapshot = pending.remove(game);
+			if (snapshot != null && !write(game, snapshot)) {
+				// keep the changes of the snapshot, so that they are
+				// written with the next attempt
+				pending.merge(game, snapshot, (newer, older) -> newer.merge(older));
+				failed = true;
+			}
+		}
+		if (!failed) {
+			failedAttempts = 0;
+		} else if (!executor.isShutdown() && scheduled.compareAndSet(false, true)) {
+			// try again later, even if no game is saved in the meantime
+			long delay = Math.max(maxDelay, MIN_RETRY_DELAY) << Math.min(failedAttempts, 16);
+			failedAttempts++;
+			executor.schedule(this::writePending, Math.min(delay, MAX_RETRY_DELAY), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private boolean write(Board game, GameSnapshot snapshot) {
+		try {
+			if (repository == null) {
+				repository = repositorySupplier.get();
+			}
+			Integer id = game.getGameId();
+			if (id == null) {
+				id = repository.createGameInDB(snapshot);
+				if (id == null) {
+					return false;
+				}
+				game.setGameId(id);
+				return true;
+			} else if (snapshot.hasChanges()) {
+				// the version is taken when the snapshot is written, since
+				// earlier snapshots may have been written after it was taken
+				int version = game.getVersion();
+				if (repository.updateGameInDB(snapshot.forGame(id, version))) {
+					game.setVersion(version + 1);
+					return true;
+				}
+				return false;
+			} else {
+				return true;
+			}
+		} catch (StaleGameException e) {
+			// the snapshot is dropped, since writing it again would fail too
+			ConflictListener listener = conflictListener;
+			if (listener != null) {
+				listener.gameSavedElsewhere(game);
+			} else {
+				System.err.println(e.getMessage());
+			}
+			return true;
+		} catch (RuntimeException e) {
+			// TODO error handling (e.g. the database is not available)
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+}
@@ -24,6 +24,8 @@ package dk.dtu.compute.se.pisd.roborally.fileaccess;
 import com.google.gson.*;
 
 import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A generic type adapter for Gson, which deals with structures, where
@@ -45,6 +47,12 @@ public class Adapter<E> implements JsonSerializer<E>, JsonDeserializer<E>{
     private static final String CLASSNAME = "CLASSNAME";
     private static final String INSTANCE  = "INSTANCE";
 
+    /**
+     * The classes, which were looked up by their name already; so that
+     * every class is looked up by reflection only once.
+     */
+    private static final Map<String, Class<?>> classes = new ConcurrentHashMap<>();
+
     @Override
     public JsonElement serialize(E src, Type typeOfSrc,
             JsonSerializationContext context) {
@@ -64,12 +72,15 @@ public class Adapter<E> implements JsonSerializer<E>, JsonDeserializer<E>{
         JsonPrimitive prim = (JsonPrimitive) jsonObject.get(CLASSNAME);
         String className = prim.getAsString();
 
-        Class<?> klass;
-        try {
-            klass = Class.forName(className);
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
-            throw new JsonParseException(e.getMessage());
+        Class<?> klass = classes.get(className);
+        if (klass == null) {
+            try {
+                klass = Class.forName(className);
+            } catch (ClassNotFoundException e) {
+                e.printStackTrace();
+                throw new JsonParseException(e.getMessage());
+            }
+            classes.put(className, klass);
         }
         return context.deserialize(jsonObject.get(INSTANCE), klass);
     }
@@ -0,0 +1,214 @@
+package dk.dtu.compute.se.pisd.roborally.fileaccess;
+
+import dk.dtu.compute.se.pisd.roborally.controller.Checkpoint;
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
+import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A compact binary format for boards, which can be read much faster than
+ * the JSON files of boards. The files are compiled from the JSON files at
+ * build time (see {@link BoardCompiler}). All numbers are stored big-endian.
+ *
+ * <pre>
+ *   header:  int magic ("RRBF"), short version, short reserved (0),
+ *            int width, int height
+ *   walls:   byte[width * height], one bitmask per space (in the order of
+ *            y * width + x), where bit i is set if there is a wall in the
+ *            heading with ordinal i
+ *   actions: int count, followed by count entries of
+ *            int space (y * width + x), int type, int argument
+ * </pre>
+ *
+ * The argument of a conveyor belt is the ordinal of its heading (or -1 if
+ * it does not have a heading), the argument of a checkpoint is its number. The actions of a space are
+ * stored in their order on the space.
+ */
+public class BinaryBoard {
+
+    public static final String BINARY_EXT = "rrb";
+
+    static final int MAGIC = 0x52524246;
+
+    static final short VERSION = 1;
+
+    static final int TYPE_CONVEYOR_BELT = 1;
+
+    static final int TYPE_CHECKPOINT = 2;
+
+    private static final int HEADER_SIZE = 16;
+
+    private static final int ACTION_SIZE = 12;
+
+    /**
+     * Loads a board from a binary board file.
+     *
+     * @param path the path of the file
+     * @param boardname the name of the board
+     * @return the board
+     * @throws IOException if the file can not be read or is not a valid board
+     */
+    public static Board load(@NotNull Path path, String boardname) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Board file " + path + " is too large");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Board file " + path + " was truncated");
+                }
+            }
+            buffer.flip();
+            return read(buffer, boardname);
+        }
+    }
+
+    /**
+     * Reads a board from the given buffer, starting at its position.
+     *
+     * @param buffer the buffer
+     * @param boardname the name of the board
+     * @return the board
+     * @throws IOException if the buffer does not contain a valid board
+     */
+    public static Board read(@NotNull ByteBuffer buffer, String boardname) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Board " + boardname + " is not a binary board");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Board " + boardname + " has the unsupported version " + version);
+            }
+            buffer.getShort();
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            if (width <= 0 || height <= 0 || (long) width * height > buffer.remaining()) {
+                throw new IOException("Board " + boardname + " has an invalid size");
+            }
+
+            Board board = new Board(width, height, boardname);
+            Heading[] headings = Heading.values();
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int walls = buffer.get();
+                    if (walls != 0) {
+                        Space space = board.getSpace(x, y);
+                        for (Heading heading : headings) {
+                            if ((walls & (1 << heading.ordinal())) != 0) {
+                                space.getWalls().add(heading);
+                            }
+                        }
+                    }
+                }
+            }
+
+            int count = buffer.getInt();
+            if (count < 0 || (long) count * ACTION_SIZE > buffer.remaining()) {
+                throw new IOException("Board " + boardname + " has an invalid number of actions");
+            }
+            for (int i = 0; i < count; i++) {
+                int cell = buffer.getInt();
+                int type = buffer.getInt();
+                int argument = buffer.getInt();
+                if (cell < 0 || cell >= width * height) {
+                    throw new IOException("Board " + boardname + " has an action outside of the board");
+                }
+                board.getSpace(cell % width, cell / width).getActions().add(createAction(type, argument));
+            }
+
+            board.updateLayout();
+            return board;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Board " + boardname + " was truncated", e);
+        }
+    }
+
+    /**
+     * Writes the given board to the given channel.
+     *
+     * @param board the board
+     * @param channel the channel
+     * @throws IOException if the board can not be written, or has a field
+     *         action which is not supported by the format
+     */
+    public static void write(@NotNull Board board, @NotNull WritableByteChannel channel) throws IOException {
+        int cells = board.width * board.height;
+        int count = 0;
+        for (int y = 0; y < board.height; y++) {
+            for (int x = 0; x < board.width; x++) {
+                count += board.getSpace(x, y).getActions().size();
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + cells + 4 + count * ACTION_SIZE);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(board.width);
+        buffer.putInt(board.height);
+        for (int y = 0; y < board.height; y++) {
+            for (int x = 0; x < board.width; x++) {
+                int walls = 0;
+                for (Heading heading : board.getSpace(x, y).getWalls()) {
+                    walls |= 1 << heading.ordinal();
+                }
+                buffer.put((byte) walls);
+            }
+        }
+        buffer.putInt(count);
+        for (int y = 0; y < board.height; y++) {
+            for (int x = 0; x < board.width; x++) {
+                for (FieldAction action : board.getSpace(x, y).getActions()) {
+                    buffer.putInt(y * board.width + x);
+                    if (action instanceof ConveyorBelt conveyorBelt) {
+                        buffer.putInt(TYPE_CONVEYOR_BELT);
+                        Heading heading = conveyorBelt.getHeading();
+                        buffer.putInt(heading != null ? heading.ordinal() : -1);
+                    } else if (action instanceof Checkpoint checkpoint) {
+                        buffer.putInt(TYPE_CHECKPOINT);
+                        buffer.putInt(checkpoint.getNumber());
+                    } else {
+                        // XXX if new field actions are added, a type for
+                        //     them must be added to the format
+                        throw new IOException("Field action " + action.getClass().getName() +
+                                " is not supported by binary boards");
+                    }
+                }
+            }
+        }
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static FieldAction createAction(int type, int argument) throws IOException {
+        switch (type) {
+            case TYPE_CONVEYOR_BELT:
+                if (argument < -1 || argument >= Heading.values().length) {
+                    throw new IOException("Conveyor belt has an invalid heading " + argument);
+                }
+                return new ConveyorBelt(argument >= 0 ? Heading.values()[argument] : null);
+            case TYPE_CHECKPOINT:
+                return new Checkpoint(argument);
+            default:
+                throw new IOException("Field action type " + type + " is not supported");
+        }
+    }
+
+}
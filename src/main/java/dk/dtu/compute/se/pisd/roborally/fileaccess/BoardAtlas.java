@@ -0,0 +1,245 @@
+package dk.dtu.compute.se.pisd.roborally.fileaccess;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.BoardLayout;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A single file with all compiled boards (see {@link BinaryBoard}), which
+ * is mapped into memory. Opening an atlas reads only its index; a board is
+ * read from the mapped file when it is used for the first time, and its
+ * layout (see {@link BoardLayout}) is kept for all further games on the
+ * board. Boards, which are not used, stay in the mapped file outside of
+ * the heap. The atlas is written by the {@link BoardCompiler}.
+ *
+ * <pre>
+ *   header:  int magic ("RRBA"), short version, short reserved (0), int count
+ *   index:   count entries of short length, byte[length] name (UTF-8),
+ *            int offset, int size
+ *   boards:  the binary boards at the offsets (from the start of the file)
+ * </pre>
+ */
+public class BoardAtlas {
+
+    public static final String ATLAS_FILE = "boards.atlas";
+
+    static final int MAGIC = 0x52524241;
+
+    static final short VERSION = 1;
+
+    private static final String BOARDSFOLDER = "boards";
+
+    private static volatile BoardAtlas defaultAtlas;
+
+    private static volatile boolean defaultAtlasLoaded = false;
+
+    private final ByteBuffer buffer;
+
+    private final Map<String, int[]> index;
+
+    private final Map<String, BoardLayout> layouts = new ConcurrentHashMap<>();
+
+    private BoardAtlas(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        try {
+            ByteBuffer header = buffer.duplicate();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("File is not a board atlas");
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Board atlas has the unsupported version " + version);
+            }
+            header.getShort();
+            int count = header.getInt();
+            Map<String, int[]> entries = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[header.getShort()];
+                header.get(name);
+                int offset = header.getInt();
+                int size = header.getInt();
+                if (offset < 0 || size < 0 || (long) offset + size > buffer.limit()) {
+                    throw new IOException("Board atlas has an invalid index");
+                }
+                entries.put(new String(name, StandardCharsets.UTF_8), new int[] { offset, size });
+            }
+            this.index = Collections.unmodifiableMap(entries);
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException("Board atlas was truncated", e);
+        }
+    }
+
+    /**
+     * Opens the board atlas in the given file by mapping it into memory.
+     *
+     * @param path the path of the atlas
+     * @return the atlas
+     * @throws IOException if the atlas can not be read
+     */
+    public static BoardAtlas open(@NotNull Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return new BoardAtlas(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the atlas of the boards in the resources, or null if there is
+     * no atlas in the resources (e.g. when the build did not compile the
+     * boards) or it can not be read.
+     *
+     * @return the atlas of the boards in the resources
+     */
+    public static BoardAtlas getDefault() {
+        if (!defaultAtlasLoaded) {
+            synchronized (BoardAtlas.class) {
+                if (!defaultAtlasLoaded) {
+                    defaultAtlas = openResource();
+                    defaultAtlasLoaded = true;
+                }
+            }
+        }
+        return defaultAtlas;
+    }
+
+    private static BoardAtlas openResource() {
+        URL url = BoardAtlas.class.getClassLoader().getResource(BOARDSFOLDER + "/" + ATLAS_FILE);
+        if (url == null) {
+            return null;
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                return open(Path.of(url.toURI()));
+            }
+            // a resource in a jar file can not be mapped; it is copied to
+            // a direct buffer, which is outside of the heap too
+            try (InputStream inputStream = url.openStream()) {
+                byte[] bytes = inputStream.readAllBytes();
+                ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+                buffer.put(bytes).flip();
+                return new BoardAtlas(buffer);
+            }
+        } catch (IOException | URISyntaxException e) {
+            System.err.println("Board atlas could not be opened: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes an atlas with the given compiled boards.
+     *
+     * @param boards the binary boards (see {@link BinaryBoard}) by their names
+     * @param path the path of the atlas
+     * @throws IOException if the atlas can not be written
+     */
+    public static void write(@NotNull Map<String, byte[]> boards, @NotNull Path path) throws IOException {
+        int headerSize = 12;
+        for (String name : boards.keySet()) {
+            headerSize += 2 + name.getBytes(StandardCharsets.UTF_8).length + 8;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) 0);
+        header.putInt(boards.size());
+        int offset = headerSize;
+        for (Map.Entry<String, byte[]> entry : boards.entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            header.putShort((short) name.length);
+            header.put(name);
+            header.putInt(offset);
+            header.putInt(entry.getValue().length);
+            offset += entry.getValue().length;
+        }
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            for (byte[] board : boards.values()) {
+                ByteBuffer bytes = ByteBuffer.wrap(board);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the names of the boards in this atlas
+     */
+    public Set<String> getBoardNames() {
+        return index.keySet();
+    }
+
+    /**
+     * Returns whether this atlas has a board with the given name.
+     *
+     * @param name the name of the board
+     * @return true if there is such a board
+     */
+    public boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    /**
+     * Returns the layout of the board with the given name. The board is read
+     * from the atlas when its layout is requested for the first time.
+     *
+     * @param name the name of the board
+     * @return the layout, or null if there is no board with that name
+     * @throws UncheckedIOException if the board in the atlas is not valid
+     */
+    public BoardLayout getLayout(String name) {
+        int[] entry = index.get(name);
+        if (entry == null) {
+            return null;
+        }
+        return layouts.computeIfAbsent(name, n -> {
+            try {
+                return BoardLayout.of(BinaryBoard.read(buffer.slice(entry[0], entry[1]), n));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Creates a new board with the given name from this atlas.
+     *
+     * @param name the name of the board
+     * @return the board, or null if there is no board with that name
+     */
+    public Board createBoard(String name) {
+        BoardLayout layout = getLayout(name);
+        return layout != null ? new Board(layout) : null;
+    }
+
+    /**
+     * @return the number of boards, which were read from the atlas already
+     */
+    int getLoadedCount() {
+        return layouts.size();
+    }
+
+}
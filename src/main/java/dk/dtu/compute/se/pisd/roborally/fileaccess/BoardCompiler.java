@@ -0,0 +1,91 @@
+package dk.dtu.compute.se.pisd.roborally.fileaccess;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compiles the JSON files of boards into binary board files (see
+ * {@link BinaryBoard}), and writes all of them into a single board atlas
+ * (see {@link BoardAtlas}) too. The compiler is run by the build for the
+ * boards in the resources:
+ *
+ * <pre>
+ *   java BoardCompiler &lt;directory with JSON files&gt; &lt;output directory&gt;
+ * </pre>
+ */
+public class BoardCompiler {
+
+    private static final String JSON_EXT = "json";
+
+    /**
+     * Compiles the given JSON file of a board into a binary board file.
+     *
+     * @param json the JSON file
+     * @param binary the binary board file
+     * @throws IOException if the board can not be read or written
+     */
+    public static void compile(Path json, Path binary) throws IOException {
+        Files.write(binary, compile(json));
+    }
+
+    private static byte[] compile(Path json) throws IOException {
+        Board board;
+        try (Reader reader = Files.newBufferedReader(json, StandardCharsets.UTF_8)) {
+            board = LoadBoard.loadBoard(reader, boardName(json));
+        } catch (RuntimeException e) {
+            throw new IOException("Board " + json + " could not be read", e);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryBoard.write(board, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static String boardName(Path json) {
+        String fileName = json.getFileName().toString();
+        return fileName.substring(0, fileName.length() - JSON_EXT.length() - 1);
+    }
+
+    /**
+     * Compiles all JSON files of boards in a directory.
+     *
+     * @param args the directory with the JSON files and the output directory
+     * @throws IOException if a board can not be compiled
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BoardCompiler <directory with JSON files> <output directory>");
+            System.exit(1);
+        }
+        Path input = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        if (!Files.isDirectory(input)) {
+            System.out.println("No boards to compile in " + input);
+            return;
+        }
+        Files.createDirectories(output);
+
+        // sorted by name, so that the atlas does not depend on the file system
+        Map<String, byte[]> boards = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(input, "*." + JSON_EXT)) {
+            for (Path json : files) {
+                String boardname = boardName(json);
+                byte[] binary = compile(json);
+                Files.write(output.resolve(boardname + "." + BinaryBoard.BINARY_EXT), binary);
+                boards.put(boardname, binary);
+            }
+        }
+        BoardAtlas.write(boards, output.resolve(BoardAtlas.ATLAS_FILE));
+        System.out.println("Compiled " + boards.size() + " board(s) to " + output);
+    }
+
+}
@@ -23,25 +23,43 @@ package dk.dtu.compute.se.pisd.roborally.fileaccess;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
 import dk.dtu.compute.se.pisd.roborally.controller.AppController;
 import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
+import dk.dtu.compute.se.pisd.roborally.controller.Checkpoint;
 import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
 import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
 import dk.dtu.compute.se.pisd.roborally.fileaccess.model.ActionTemplate;
-import dk.dtu.compute.se.pisd.roborally.fileaccess.model.BoardTemplate;
+import dk.dtu.compute.se.pisd.roborally.fileaccess.model.CheckPointTemplate;
 import dk.dtu.compute.se.pisd.roborally.fileaccess.model.ConveyorBeltTemplate;
-import dk.dtu.compute.se.pisd.roborally.fileaccess.model.SpaceTemplate;
 import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.BoardLayout;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
 import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.jetbrains.annotations.NotNull;
 
-import java.io.FileWriter;
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ...
@@ -54,183 +72,393 @@ public class LoadBoard {
     private static final String DEFAULTBOARD = "defaultboard";
     private static final String JSON_EXT = "json";
 
+    private static final String CLASSNAME = "CLASSNAME";
+    private static final String INSTANCE = "INSTANCE";
+
+    /**
+     * The Gson object for reading and writing boards. Gson objects are
+     * thread-safe, so it is created only once.
+     */
+    private static final Gson GSON = new GsonBuilder().
+            registerTypeAdapter(ActionTemplate.class, new Adapter<ActionTemplate>()).
+            create();
+
+    /**
+     * Reads the instance of a field action from JSON; the reader is positioned
+     * at the beginning of the instance (a JSON object).
+     */
+    private interface ActionReader {
+        FieldAction read(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * The readers for the field actions by the class name of their templates,
+     * which is stored as CLASSNAME in the JSON files (see {@link Adapter}).
+     */
+    private static final Map<String, ActionReader> ACTION_READERS = Map.of(
+            ConveyorBeltTemplate.class.getName(), LoadBoard::readConveyorBelt,
+            CheckPointTemplate.class.getName(), LoadBoard::readCheckpoint);
+    // XXX if new field actions are added, the corresponding templates
+    //     need to be added to the model subpackage of fileaccess and
+    //     a reader for the action must be added to this map.
+
+    /**
+     * Loads the board with the given name from the resources. The board is
+     * taken from the atlas of the compiled boards (see {@link BoardAtlas}),
+     * if there is one, which shares the layout of the board with all other
+     * boards loaded with the same name. Otherwise, the compiled binary board
+     * file (see {@link BinaryBoard}) is used, if there is one; and otherwise,
+     * the board is read from its JSON file. If there is no such
+     * board in the resources, the board is created by the {@link BoardFactory}.
+     *
+     * On all these paths, the board is created from a {@link BoardLayout}, so
+     * that the walls and field actions of its spaces can not be changed.
+     *
+     * @param boardname the name of the board
+     * @return the board, or null if the board could not be loaded
+     */
     public static Board loadBoard(String boardname) {
         if (boardname == null) {
             boardname = DEFAULTBOARD;
         }
 
+        BoardAtlas atlas = BoardAtlas.getDefault();
+        if (atlas != null && atlas.contains(boardname)) {
+            try {
+                return atlas.createBoard(boardname);
+            } catch (UncheckedIOException e) {
+                // fall back to the files of the board
+                System.err.println("Board " + boardname + " could not be loaded from the atlas: " + e.getMessage());
+            }
+        }
+
         ClassLoader classLoader = LoadBoard.class.getClassLoader();
+        URL binary = classLoader.getResource(BOARDSFOLDER + "/" + boardname + "." + BinaryBoard.BINARY_EXT);
+        if (binary != null) {
+            try {
+                return new Board(BoardLayout.of(loadBinaryBoard(binary, boardname)));
+            } catch (IOException | URISyntaxException | RuntimeException e) {
+                // fall back to the JSON file
+                System.err.println("Binary board " + boardname + " could not be loaded: " + e.getMessage());
+            }
+        }
+
         InputStream inputStream = classLoader.getResourceAsStream(BOARDSFOLDER + "/" + boardname + "." + JSON_EXT);
         if (inputStream == null) {
             return BoardFactory.getInstance().createBoard(boardname);
         }
 
-		// In simple cases, we can create a Gson object with new Gson():
-        GsonBuilder simpleBuilder = new GsonBuilder().
-                registerTypeAdapter(ActionTemplate.class, new Adapter<ActionTemplate>());
-        Gson gson = simpleBuilder.create();
-
-		Board result;
-        JsonReader reader = null;
-		try {
-			reader = gson.newJsonReader(new InputStreamReader(inputStream));
-			BoardTemplate template = gson.fromJson(reader, BoardTemplate.class);
-			result = convert(template, boardname);
-			reader.close();
-			return result;
-		} catch (IOException e1) {
-            if (reader != null) {
-                try {
-                    reader.close();
-                    inputStream = null;
-                } catch (IOException e2) {}
-            }
-            if (inputStream != null) {
-				try {
-					inputStream.close();
-				} catch (IOException e2) {}
-			}
-		}
-		return null;
+        try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            return new Board(BoardLayout.of(loadBoard(reader, boardname)));
+        } catch (IOException | RuntimeException e) {
+            // TODO error handling
+            e.printStackTrace();
+        }
+        return null;
     }
 
-    private static Board convert(BoardTemplate template, String boardname) {
-        Board result = new Board(template.width, template.height, boardname);
-        for (SpaceTemplate spaceTemplate: template.spaces) {
-            Space space = result.getSpace(spaceTemplate.x, spaceTemplate.y);
-            if (space != null) {
-                space.getActions().addAll(convert(spaceTemplate.actions));
-                space.getWalls().addAll(spaceTemplate.walls);
+    private static Board loadBinaryBoard(URL url, String boardname) throws IOException, URISyntaxException {
+        if ("file".equals(url.getProtocol())) {
+            return BinaryBoard.load(Path.of(url.toURI()), boardname);
+        }
+        // e.g. in a jar file
+        try (InputStream inputStream = url.openStream()) {
+            return BinaryBoard.read(ByteBuffer.wrap(inputStream.readAllBytes()), boardname);
+        }
+    }
+
+    /**
+     * Reads a board from JSON in a single pass. The walls and actions are
+     * added to the spaces of the board as they are read, without building
+     * the templates of the board first.
+     *
+     * @param in the reader of the JSON
+     * @param boardname the name of the board
+     * @return the board
+     * @throws IOException if the JSON can not be read
+     */
+    static Board loadBoard(@NotNull Reader in, String boardname) throws IOException {
+        JsonReader reader = GSON.newJsonReader(in);
+        int width = -1;
+        int height = -1;
+        Board result = null;
+        // the spaces might come before the size of the board in the JSON;
+        // in that case, they are kept as JSON and read when the size is known
+        JsonArray early = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "width":
+                    width = reader.nextInt();
+                    break;
+                case "height":
+                    height = reader.nextInt();
+                    break;
+                case "spaces":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        if (result == null && width >= 0 && height >= 0) {
+                            result = new Board(width, height, boardname);
+                        }
+                        if (result != null) {
+                            readSpace(reader, result);
+                        } else {
+                            if (early == null) {
+                                early = new JsonArray();
+                            }
+                            early.add(JsonParser.parseReader(reader));
+                        }
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (width < 0 || height < 0) {
+            throw new IOException("Board " + boardname + " does not have a size");
+        }
+        if (result == null) {
+            result = new Board(width, height, boardname);
+        }
+        if (early != null) {
+            JsonReader spaces = GSON.newJsonReader(new StringReader(early.toString()));
+            spaces.beginArray();
+            while (spaces.hasNext()) {
+                readSpace(spaces, result);
             }
+            spaces.endArray();
         }
+        result.updateLayout();
         return result;
     }
 
-    private static List<FieldAction> convert(List<ActionTemplate> actionTemplates) {
-        List<FieldAction> result = new ArrayList<>();
+    private static void readSpace(JsonReader reader, Board board) throws IOException {
+        // the coordinates are usually written after the walls and actions
+        int x = -1;
+        int y = -1;
+        List<Heading> walls = null;
+        List<FieldAction> actions = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "x":
+                    x = reader.nextInt();
+                    break;
+                case "y":
+                    y = reader.nextInt();
+                    break;
+                case "walls":
+                    walls = new ArrayList<>(4);
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        walls.add(Heading.valueOf(reader.nextString()));
+                    }
+                    reader.endArray();
+                    break;
+                case "actions":
+                    actions = new ArrayList<>(2);
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        FieldAction action = readAction(reader);
+                        if (action != null) {
+                            actions.add(action);
+                        }
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        Space space = board.getSpace(x, y);
+        if (space != null) {
+            if (walls != null) {
+                space.getWalls().addAll(walls);
+            }
+            if (actions != null) {
+                space.getActions().addAll(actions);
+            }
+        }
+    }
+
+    private static FieldAction readAction(JsonReader reader) throws IOException {
+        String className = null;
+        JsonElement instance = null;
+        FieldAction result = null;
 
-        for (ActionTemplate template: actionTemplates) {
-            FieldAction fieldAction = convert(template);
-            if (fieldAction != null) {
-                result.add(fieldAction);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case CLASSNAME:
+                    className = reader.nextString();
+                    break;
+                case INSTANCE:
+                    ActionReader actionReader = className != null ? ACTION_READERS.get(className) : null;
+                    if (actionReader != null) {
+                        result = actionReader.read(reader);
+                    } else {
+                        // the class name is not known (yet)
+                        instance = JsonParser.parseReader(reader);
+                    }
+                    break;
+                default:
+                    reader.skipValue();
             }
         }
+        reader.endObject();
 
+        if (result == null && instance != null && className != null) {
+            ActionReader actionReader = ACTION_READERS.get(className);
+            if (actionReader != null) {
+                JsonReader instanceReader = GSON.newJsonReader(new StringReader(instance.toString()));
+                result = actionReader.read(instanceReader);
+            }
+        }
+        if (result == null) {
+            System.err.println("Field action " + className + " is not supported and is ignored!");
+        }
         return result;
     }
 
-    private static FieldAction convert(ActionTemplate actionTemplate) {
-        if (actionTemplate instanceof ConveyorBeltTemplate) {
-            ConveyorBeltTemplate template = (ConveyorBeltTemplate) actionTemplate;
-            ConveyorBelt conveyorBelt = new ConveyorBelt();
-            conveyorBelt.setHeading(template.heading);
-            return conveyorBelt;
-        } // else if ...
-        // XXX if new field actions are added, the corresponding templates
-        //     need to be added to the model subpackage of fileaccess and
-        //     the else statement must be extended for converting the
-        //     action template to the corresponding field action.
+    private static FieldAction readConveyorBelt(JsonReader reader) throws IOException {
+        Heading heading = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("heading") && reader.peek() != JsonToken.NULL) {
+                heading = Heading.valueOf(reader.nextString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new ConveyorBelt(heading);
+    }
 
-        return null;
+    private static FieldAction readCheckpoint(JsonReader reader) throws IOException {
+        int number = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("number")) {
+                number = reader.nextInt();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Checkpoint(number);
     }
 
-    // The following method is not needed for RoboRally; but it would
-    // allow to programmatically generate a board and save it to a
-    // JSON file, if need should be. This might make it easier to
-    // create a first version fof some JSON file of a board.
+    // The following methods are not needed for playing RoboRally; but they
+    // allow to programmatically generate a board and save it to a JSON
+    // file, e.g. by a level generator. This might also make it easier to
+    // create a first version of some JSON file of a board.
 
+    /**
+     * Saves the given board to a JSON file with the given name in the boards
+     * folder of the resources (or in a folder "boards" in the working
+     * directory, if the resources are not in the file system).
+     *
+     * @param board the board
+     * @param name the name of the board
+     */
     public static void saveBoard(Board board, String name) {
-        BoardTemplate template = convertToTemplate(board);
-        template.width = board.width;
-        template.height = board.height;
-
         ClassLoader classLoader = AppController.class.getClassLoader();
-        // FIXME: this is not very defensive and will result in a NullPointerException
-        //         when the folder BOARDSFOLDER does not exist! But, the file does not
-        //         need to exist at this point!
-        String filename =
-                classLoader.getResource(BOARDSFOLDER).getPath() + "/" + name + "." + JSON_EXT;
-
-        // In simple cases, we can create a Gson object with new:
-        //
-        //   Gson gson = new Gson();
-        //
-        // But, if you need to configure it, it is better to create it from
-        // a builder (here, we want to configure the JSON serialisation with
-        // a pretty printer):
-        GsonBuilder simpleBuilder = new GsonBuilder().
-                registerTypeAdapter(ActionTemplate.class, new Adapter<ActionTemplate>()).
-                setPrettyPrinting();
-        Gson gson = simpleBuilder.create();
-
-        FileWriter fileWriter = null;
-        JsonWriter writer = null;
+        URL folder = classLoader.getResource(BOARDSFOLDER);
         try {
-            fileWriter = new FileWriter(filename);
-            writer = gson.newJsonWriter(fileWriter);
-            gson.toJson(template, template.getClass(), writer);
-            writer.close();
-        } catch (IOException e1) {
-            if (writer != null) {
-                try {
-                    writer.close();
-                    fileWriter = null;
-                } catch (IOException e2) {}
-            }
-            if (fileWriter != null) {
-                try {
-                    fileWriter.close();
-                } catch (IOException e2) {}
+            Path directory;
+            if (folder != null && "file".equals(folder.getProtocol())) {
+                directory = Path.of(folder.toURI());
+            } else {
+                directory = Path.of(BOARDSFOLDER);
             }
+            Files.createDirectories(directory);
+            saveBoard(board, directory.resolve(name + "." + JSON_EXT));
+        } catch (IOException | URISyntaxException e) {
+            // TODO error handling
+            e.printStackTrace();
         }
     }
 
-    private static BoardTemplate convertToTemplate(Board board) {
-        BoardTemplate result = new BoardTemplate();
-        result.width = board.width;
-        result.height = board.height;
+    /**
+     * Saves the given board as JSON to the file with the given path. The
+     * board is written in a single pass directly from its spaces; only the
+     * spaces with walls or actions are written. The format is the same as
+     * the one of the JSON files of the boards in the resources.
+     *
+     * @param board the board
+     * @param path the path of the file
+     * @throws IOException if the board can not be written
+     */
+    public static void saveBoard(@NotNull Board board, @NotNull Path path) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            saveBoard(board, out);
+        }
+    }
 
+    static void saveBoard(@NotNull Board board, @NotNull Writer out) throws IOException {
+        JsonWriter writer = GSON.newJsonWriter(out);
+        writer.setIndent("  ");
+        writer.beginObject();
+        writer.name("width").value(board.width);
+        writer.name("height").value(board.height);
+        writer.name("spaces").beginArray();
         for (int x = 0; x < board.width; x++) {
-            for (int y= 0; y < board.height; y++) {
-                Space space = board.getSpace(x,y);
-                if (space != null && ( !space.getActions().isEmpty() || !space.getWalls().isEmpty()) ) {
-                    SpaceTemplate spaceTemplate = new SpaceTemplate();
-                    spaceTemplate.x = x;
-                    spaceTemplate.y = y;
-                    spaceTemplate.actions = convertToTemplate(space.getActions());
-                    spaceTemplate.walls = new ArrayList<>(space.getWalls());
+            for (int y = 0; y < board.height; y++) {
+                Space space = board.getSpace(x, y);
+                if (!space.getActions().isEmpty() || !space.getWalls().isEmpty()) {
+                    writer.beginObject();
+                    writer.name("walls").beginArray();
+                    for (Heading wall : space.getWalls()) {
+                        writer.value(wall.name());
+                    }
+                    writer.endArray();
+                    writer.name("actions").beginArray();
+                    for (FieldAction action : space.getActions()) {
+                        writeAction(writer, action);
+                    }
+                    writer.endArray();
+                    writer.name("x").value(x);
+                    writer.name("y").value(y);
+                    writer.endObject();
                 }
             }
         }
-        return result;
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
     }
 
-    private static List<ActionTemplate> convertToTemplate(List<FieldAction> actions) {
-        List<ActionTemplate> result = new ArrayList<>();
-
-        for (FieldAction action: actions) {
-            ActionTemplate template = convertToTemplate(action);
-            if (template != null) {
-                result.add(template);
+    private static void writeAction(JsonWriter writer, FieldAction action) throws IOException {
+        // the actions are written in the format of the Adapter of the templates
+        if (action instanceof ConveyorBelt conveyorBelt) {
+            writer.beginObject();
+            writer.name(CLASSNAME).value(ConveyorBeltTemplate.class.getName());
+            writer.name(INSTANCE).beginObject();
+            // a conveyor belt without a heading is written without it (as by Gson)
+            if (conveyorBelt.getHeading() != null) {
+                writer.name("heading").value(conveyorBelt.getHeading().name());
             }
-        }
-
-        return result;
-    }
-
-    private static ActionTemplate convertToTemplate(FieldAction action) {
-        if (action instanceof ConveyorBelt) {
-            ConveyorBelt conveyorBelt = (ConveyorBelt) action;
-            ConveyorBeltTemplate conveyorBeltTemplate = new ConveyorBeltTemplate();
-            conveyorBeltTemplate.heading = conveyorBelt.getHeading();
-            return conveyorBeltTemplate;
+            writer.endObject();
+            writer.endObject();
+        } else if (action instanceof Checkpoint checkpoint) {
+            writer.beginObject();
+            writer.name(CLASSNAME).value(CheckPointTemplate.class.getName());
+            writer.name(INSTANCE).beginObject();
+            writer.name("number").value(checkpoint.getNumber());
+            writer.endObject();
+            writer.endObject();
         } // else if ...
         // XXX if new field actions are added, the corresponding templates
         //     need to be added to the model subpackage of fileaccess and
-        //     the else statement must be extended for converting the
-        //    field action to the corresponding action template.
-
-        return null;
+        //     the else statement must be extended for writing the field
+        //     action in the format of its template.
     }
 
 }
@@ -22,10 +22,14 @@
 package dk.dtu.compute.se.pisd.roborally.model;
 
 import dk.dtu.compute.se.pisd.designpatterns.observer.Subject;
+import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static dk.dtu.compute.se.pisd.roborally.model.Phase.INITIALISATION;
 
@@ -45,10 +49,21 @@ public class Board extends Subject {
 
     public String boardName;
 
-    private Integer gameId;
+    // the id and version might be set by a thread writing the game to the database
+    private volatile Integer gameId;
+
+    private volatile int version = 0;
+
+    private boolean dirty = false;
 
     private final Space[][] spaces;
 
+    private final Space[] cells;
+
+    private int[] neighbours;
+
+    private Map<Class<?>, List<Space>> actionIndex;
+
     private final List<Player> players = new ArrayList<>();
 
     private Player current;
@@ -66,12 +81,47 @@ public class Board extends Subject {
         this.width = width;
         this.height = height;
         spaces = new Space[width][height];
+        cells = new Space[width * height];
         for (int x = 0; x < width; x++) {
             for(int y = 0; y < height; y++) {
                 Space space = new Space(this, x, y);
                 spaces[x][y] = space;
+                cells[y * width + x] = space;
+            }
+        }
+        this.stepMode = false;
+    }
+    /**
+     * Constructs a board with the given layout. The walls, field actions and
+     * lookup tables are shared with the layout, so that only the spaces of
+     * the new board need to be created.
+     *
+     * @param layout the layout of the board
+     */
+    public Board(@NotNull BoardLayout layout) {
+        this.boardName = layout.name;
+        this.width = layout.width;
+        this.height = layout.height;
+        spaces = new Space[width][height];
+        cells = new Space[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int cell = y * width + x;
+                Space space = new Space(this, x, y, layout.getWalls(cell), layout.getActions(cell));
+                spaces[x][y] = space;
+                cells[cell] = space;
+            }
+        }
+        neighbours = layout.getNeighbourTable();
+        Map<Class<?>, List<Space>> index = new HashMap<>();
+        for (Map.Entry<Class<?>, int[]> entry : layout.actionCells.entrySet()) {
+            Space[] list = new Space[entry.getValue().length];
+            for (int i = 0; i < list.length; i++) {
+                list[i] = cells[entry.getValue()[i]];
             }
+            index.put(entry.getKey(), List.of(list));
         }
+        actionIndex = index;
         this.stepMode = false;
     }
     /**
@@ -104,6 +154,38 @@ public class Board extends Subject {
             }
         }
     }
+    /**
+     * Gets the version of this game in the database, i.e. the number of
+     * times the game was saved to the database after it was created there.
+     *
+     */
+    public int getVersion() {
+        return version;
+    }
+    /**
+     * Sets the version of this game in the database.
+     *
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
+    /**
+     * Checks if the phase, step or current player of the game were changed
+     * since the board was last marked as clean. This is used for saving only
+     * the changed parts of a game; changes of the players are tracked by the
+     * players themselves.
+     *
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+    /**
+     * Marks this board as clean, i.e. as saved.
+     *
+     */
+    public void markClean() {
+        dirty = false;
+    }
     /**
      * Retrieves the space at the specified coordinates.
      */
@@ -168,6 +250,7 @@ public class Board extends Subject {
     public void setCurrentPlayer(Player player) {
         if (player != this.current && players.contains(player)) {
             this.current = player;
+            dirty = true;
             notifyChange();
         }
     }
@@ -185,6 +268,7 @@ public class Board extends Subject {
     public void setPhase(Phase phase) {
         if (phase != this.phase) {
             this.phase = phase;
+            dirty = true;
             notifyChange();
         }
     }
@@ -216,6 +300,7 @@ public class Board extends Subject {
     public void setStep(int step) {
         if (step != this.step) {
             this.step = step;
+            dirty = true;
             notifyChange();
         }
     }
@@ -254,32 +339,114 @@ public class Board extends Subject {
      * (no walls or obstacles in either of the involved spaces); otherwise,
      * null will be returned.
      *
+     * The neighbours are looked up in a table, which is computed from the walls
+     * of the spaces by {@link #updateLayout()}.
+     *
      * @param space the space for which the neighbour should be computed
      * @param heading the heading of the neighbour
      * @return the space in the given direction; null if there is no (reachable) neighbour
      */
     public Space getNeighbour(@NotNull Space space, @NotNull Heading heading) {
-        // TODO A3: This implementation needs to be adjusted so that walls on
-        //          spaces (and maybe other obstacles) are taken into account
-        //          (see above JavaDoc comment for this method).
-        int x = space.x;
-        int y = space.y;
-        switch (heading) {
-            case SOUTH:
-                y = (y + 1) % height;
-                break;
-            case WEST:
-                x = (x + width - 1) % width;
-                break;
-            case NORTH:
-                y = (y + height - 1) % height;
-                break;
-            case EAST:
-                x = (x + 1) % width;
-                break;
+        if (neighbours == null) {
+            updateLayout();
+        }
+        int neighbour = neighbours[((space.y * width + space.x) << 2) + heading.ordinal()];
+        return neighbour < 0 ? null : cells[neighbour];
+    }
+
+    /**
+     * Returns all spaces of this board, which have a field action of the given
+     * type (or of a subtype of it). The spaces are returned in the order of their
+     * x-coordinate first and then their y-coordinate. The spaces are looked up in
+     * an index, which is computed from the actions of the spaces by
+     * {@link #updateLayout()}, so that the costs do not depend on the size of
+     * the board.
+     *
+     * @param type the type of field action
+     * @return an unmodifiable list of the spaces with such an action
+     */
+    public List<Space> getSpacesWithAction(@NotNull Class<? extends FieldAction> type) {
+        if (actionIndex == null) {
+            updateLayout();
+        }
+        return actionIndex.getOrDefault(type, Collections.emptyList());
+    }
+
+    int[] getNeighbourTable() {
+        if (neighbours == null) {
+            updateLayout();
+        }
+        return neighbours;
+    }
+
+    Map<Class<?>, List<Space>> getActionIndex() {
+        if (actionIndex == null) {
+            updateLayout();
+        }
+        return actionIndex;
+    }
+
+    /**
+     * Precomputes the lookup tables of this board, which depend on the walls
+     * and field actions on its spaces. For every space and heading, the
+     * neighbour table contains the index of the neighbouring space, or -1 if
+     * the move in that heading is blocked by a wall on either of the two spaces
+     * (note that the board wraps around at its borders). And the action index
+     * contains the spaces with field actions for every type of field action.
+     *
+     * This method should be called once the walls and actions of the board are
+     * set up (it is called by the factories creating and loading boards); if the
+     * walls or actions are changed afterwards, it must be called again.
+     */
+    public void updateLayout() {
+        Map<Class<?>, List<Space>> index = new HashMap<>();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                Space space = spaces[x][y];
+                for (FieldAction action : space.getActions()) {
+                    for (Class<?> type = action.getClass(); type != Object.class; type = type.getSuperclass()) {
+                        List<Space> list = index.computeIfAbsent(type, t -> new ArrayList<>());
+                        if (list.isEmpty() || list.get(list.size() - 1) != space) {
+                            list.add(space);
+                        }
+                    }
+                }
+            }
         }
+        index.replaceAll((type, list) -> Collections.unmodifiableList(list));
+        actionIndex = index;
 
-        return getSpace(x, y);
+        Heading[] headings = Heading.values();
+        int[] table = new int[cells.length * headings.length];
+        for (int cell = 0; cell < cells.length; cell++) {
+            Space space = cells[cell];
+            for (Heading heading : headings) {
+                int x = space.x;
+                int y = space.y;
+                switch (heading) {
+                    case SOUTH:
+                        y = (y + 1) % height;
+                        break;
+                    case WEST:
+                        x = (x + width - 1) % width;
+                        break;
+                    case NORTH:
+                        y = (y + height - 1) % height;
+                        break;
+                    case EAST:
+                        x = (x + 1) % width;
+                        break;
+                }
+                Space neighbour = spaces[x][y];
+                if (space.getWalls().contains(heading) ||
+                        neighbour.getWalls().contains(heading.opposite())) {
+                    table[(cell << 2) + heading.ordinal()] = -1;
+                } else {
+                    table[(cell << 2) + heading.ordinal()] = y * width + x;
+                }
+            }
+        }
+        neighbours = table;
     }
 
     /**
@@ -0,0 +1,120 @@
+package dk.dtu.compute.se.pisd.roborally.model;
+
+import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The immutable layout of a board: its name and size, the walls and field
+ * actions on its spaces, and the lookup tables computed from them (see
+ * {@link Board#updateLayout()}). All boards created from the same layout
+ * (see {@link Board#Board(BoardLayout)}) share it; each of them has only its
+ * own spaces and the state of its game. Creating a board from a layout does
+ * therefore not need to set up the walls and actions again.
+ *
+ * Note that the field actions are shared by these boards too; they cannot
+ * be changed once they are created (see
+ * {@link dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt} and
+ * {@link dk.dtu.compute.se.pisd.roborally.controller.Checkpoint}).
+ */
+public final class BoardLayout {
+
+    public final String name;
+
+    public final int width;
+
+    public final int height;
+
+    private final List<List<Heading>> walls;
+
+    private final List<List<FieldAction>> actions;
+
+    private final int[] neighbours;
+
+    final Map<Class<?>, int[]> actionCells;
+
+    private BoardLayout(String name, int width, int height,
+                        List<List<Heading>> walls, List<List<FieldAction>> actions,
+                        int[] neighbours, Map<Class<?>, int[]> actionCells) {
+        this.name = name;
+        this.width = width;
+        this.height = height;
+        this.walls = walls;
+        this.actions = actions;
+        this.neighbours = neighbours;
+        this.actionCells = actionCells;
+    }
+
+    /**
+     * Creates the layout of the given board, which must be set up completely.
+     * The board itself is not changed.
+     *
+     * @param board the board
+     * @return the layout of the board
+     */
+    public static BoardLayout of(@NotNull Board board) {
+        board.updateLayout();
+        int cells = board.width * board.height;
+        List<List<Heading>> walls = new ArrayList<>(cells);
+        List<List<FieldAction>> actions = new ArrayList<>(cells);
+        for (int y = 0; y < board.height; y++) {
+            for (int x = 0; x < board.width; x++) {
+                Space space = board.getSpace(x, y);
+                walls.add(List.copyOf(space.getWalls()));
+                actions.add(List.copyOf(space.getActions()));
+            }
+        }
+
+        Map<Class<?>, int[]> actionCells = new HashMap<>();
+        for (Map.Entry<Class<?>, List<Space>> entry : board.getActionIndex().entrySet()) {
+            List<Space> spaces = entry.getValue();
+            int[] indices = new int[spaces.size()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = spaces.get(i).y * board.width + spaces.get(i).x;
+            }
+            actionCells.put(entry.getKey(), indices);
+        }
+
+        return new BoardLayout(board.boardName, board.width, board.height,
+                Collections.unmodifiableList(walls), Collections.unmodifiableList(actions),
+                board.getNeighbourTable().clone(), Collections.unmodifiableMap(actionCells));
+    }
+
+    /**
+     * Returns the neighbour table of this layout (see
+     * {@link Board#updateLayout()}). The table is shared with the boards
+     * created from this layout, which only read it; a board computes a new
+     * table when its layout is updated.
+     */
+    int[] getNeighbourTable() {
+        return neighbours;
+    }
+
+    /**
+     * Returns the walls on the space with the given index (which is
+     * <code>y * width + x</code>).
+     *
+     * @param cell the index of the space
+     * @return the unmodifiable list of walls on the space
+     */
+    public List<Heading> getWalls(int cell) {
+        return walls.get(cell);
+    }
+
+    /**
+     * Returns the field actions on the space with the given index (which is
+     * <code>y * width + x</code>).
+     *
+     * @param cell the index of the space
+     * @return the unmodifiable list of field actions on the space
+     */
+    public List<FieldAction> getActions(int cell) {
+        return actions.get(cell);
+    }
+
+}
@@ -32,12 +32,39 @@ import org.jetbrains.annotations.NotNull;
  */
 public class CommandCard extends Subject {
 
+    private static final CommandCard[] CARDS;
+
+    static {
+        Command[] commands = Command.values();
+        CARDS = new CommandCard[commands.length];
+        for (Command command : commands) {
+            CARDS[command.ordinal()] = new CommandCard(command);
+        }
+    }
+
     final public Command command;
 
+    /**
+     * Creates a new command card. Since command cards cannot be changed,
+     * {@link #of(Command)} should be used instead, unless different cards
+     * of the same command need to be told apart (as in a {@link Deck}).
+     *
+     * @param command the command of the card
+     */
     public CommandCard(@NotNull Command command) {
         this.command = command;
     }
 
+    /**
+     * Returns the shared card of the given command, which is created only once.
+     *
+     * @param command the command
+     * @return the card of the command
+     */
+    public static CommandCard of(@NotNull Command command) {
+        return CARDS[command.ordinal()];
+    }
+
     public String getName() {
         return command.displayName;
     }
@@ -37,6 +37,8 @@ public class CommandCardField extends Subject {
 
     private boolean visible;
 
+    private boolean dirty = false;
+
     public CommandCardField(Player player) {
         this.player = player;
         this. card = null;
@@ -50,6 +52,7 @@ public class CommandCardField extends Subject {
     public void setCard(CommandCard card) {
         if (card != this.card) {
             this.card = card;
+            dirty = true;
             notifyChange();
         }
     }
@@ -61,7 +64,27 @@ public class CommandCardField extends Subject {
     public void setVisible(boolean visible) {
         if (visible != this.visible) {
             this.visible = visible;
+            dirty = true;
             notifyChange();
         }
     }
+
+    /**
+     * Returns whether the card or the visibility of this field were changed
+     * since the field was last marked as clean (see {@link #markClean()}).
+     * This is used for saving only the changed parts of a game.
+     *
+     * @return true if this field was changed
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks this field as clean, i.e. as saved.
+     */
+    public void markClean() {
+        dirty = false;
+    }
+
 }
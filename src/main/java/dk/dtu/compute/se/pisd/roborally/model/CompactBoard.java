@@ -0,0 +1,241 @@
+package dk.dtu.compute.se.pisd.roborally.model;
+
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
+import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A compact representation of the state of a {@link Board} relevant for
+ * moving robots, which uses primitive arrays only. The spaces of the board
+ * are identified by their cell index <code>y * width + x</code>; the players
+ * are identified by their number on the board.
+ *
+ * For every cell, one byte holds the walls as a bit mask (bits 0 to 3, where
+ * bit <code>i</code> represents the heading with ordinal <code>i</code>) and
+ * the conveyor belt on it (bit 4 indicates that there is a conveyor belt,
+ * bits 5 and 6 hold the ordinal of its heading). The occupancy of the cells
+ * is kept as the number of the player on it (or {@link #NO_PLAYER}). So a
+ * 15x8 board takes 360 bytes (plus a few bytes per player). The neighbours
+ * of a cell are computed from the size of the board and the wall masks of
+ * the two cells, which avoids a neighbour table four times the size of the
+ * board.
+ *
+ * Different from the board, this representation does not have any observers;
+ * it is meant for simulating many moves fast. The resulting positions and
+ * headings of the players can be written back to the board with
+ * {@link #writeTo(Board)}.
+ */
+public class CompactBoard {
+
+    public static final short NO_PLAYER = -1;
+
+    private static final int WALLS_MASK = 0x0F;
+    private static final int CONVEYOR_BIT = 0x10;
+    private static final int CONVEYOR_HEADING_SHIFT = 5;
+
+    private static final Heading[] HEADINGS = Heading.values();
+
+    public final int width;
+
+    public final int height;
+
+    private final byte[] cells;
+
+    private final short[] occupants;
+
+    private final int[] playerCells;
+
+    private final byte[] playerHeadings;
+
+    private CompactBoard(int width, int height, int noPlayers) {
+        this.width = width;
+        this.height = height;
+        this.cells = new byte[width * height];
+        this.occupants = new short[width * height];
+        Arrays.fill(occupants, NO_PLAYER);
+        this.playerCells = new int[noPlayers];
+        this.playerHeadings = new byte[noPlayers];
+    }
+
+    /**
+     * Creates the compact representation of the given board including the
+     * current positions and headings of its players.
+     *
+     * @param board the board
+     * @return the compact representation of the board
+     */
+    public static CompactBoard of(@NotNull Board board) {
+        CompactBoard result = new CompactBoard(board.width, board.height, board.getPlayersNumber());
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                Space space = board.getSpace(x, y);
+                int value = 0;
+                for (Heading wall : space.getWalls()) {
+                    value |= 1 << wall.ordinal();
+                }
+                for (FieldAction action : space.getActions()) {
+                    if (action instanceof ConveyorBelt conveyorBelt && conveyorBelt.getHeading() != null) {
+                        value |= CONVEYOR_BIT | (conveyorBelt.getHeading().ordinal() << CONVEYOR_HEADING_SHIFT);
+                    }
+                }
+                result.cells[result.cellOf(x, y)] = (byte) value;
+            }
+        }
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Player player = board.getPlayer(i);
+            result.playerHeadings[i] = (byte) player.getHeading().ordinal();
+            Space space = player.getSpace();
+            if (space != null) {
+                int cell = result.cellOf(space.x, space.y);
+                result.playerCells[i] = cell;
+                result.occupants[cell] = (short) i;
+            } else {
+                result.playerCells[i] = -1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the positions and headings of the players back to the given board,
+     * which must be the board this representation was created from.
+     *
+     * @param board the board to be updated
+     */
+    public void writeTo(@NotNull Board board) {
+        // first remove all players from their spaces, so that no player is
+        // pushed off the board by another one, which is set to its space
+        for (int i = 0; i < playerCells.length; i++) {
+            board.getPlayer(i).setSpace(null);
+        }
+        for (int i = 0; i < playerCells.length; i++) {
+            Player player = board.getPlayer(i);
+            int cell = playerCells[i];
+            if (cell >= 0) {
+                player.setSpace(board.getSpace(getX(cell), getY(cell)));
+            }
+            player.setHeading(HEADINGS[playerHeadings[i]]);
+        }
+    }
+
+    public int cellOf(int x, int y) {
+        return y * width + x;
+    }
+
+    public int getX(int cell) {
+        return cell % width;
+    }
+
+    public int getY(int cell) {
+        return cell / width;
+    }
+
+    public int getPlayersNumber() {
+        return playerCells.length;
+    }
+
+    /**
+     * Returns the cell next to the given cell in the given heading, if it can
+     * be reached from the given cell. Like {@link Board#getNeighbour(Space, Heading)},
+     * the board wraps around at its borders.
+     *
+     * @param cell the cell index
+     * @param heading the heading of the neighbour
+     * @return the cell index of the neighbour; -1 if the move is blocked by a wall
+     */
+    public int getNeighbour(int cell, @NotNull Heading heading) {
+        int neighbour;
+        switch (heading) {
+            case SOUTH:
+                neighbour = cell + width < cells.length ? cell + width : cell + width - cells.length;
+                break;
+            case WEST:
+                neighbour = cell % width == 0 ? cell + width - 1 : cell - 1;
+                break;
+            case NORTH:
+                neighbour = cell >= width ? cell - width : cell - width + cells.length;
+                break;
+            default:
+                neighbour = cell % width == width - 1 ? cell - width + 1 : cell + 1;
+                break;
+        }
+        // a wall blocks the move, if it is on either of the two cells
+        int ordinal = heading.ordinal();
+        if ((cells[cell] & (1 << ordinal)) != 0 || (cells[neighbour] & (1 << ((ordinal + 2) & 0x03))) != 0) {
+            return -1;
+        }
+        return neighbour;
+    }
+
+    public boolean hasWall(int cell, @NotNull Heading heading) {
+        return (cells[cell] & (1 << heading.ordinal())) != 0;
+    }
+
+    public int getWalls(int cell) {
+        return cells[cell] & WALLS_MASK;
+    }
+
+    public boolean hasConveyorBelt(int cell) {
+        return (cells[cell] & CONVEYOR_BIT) != 0;
+    }
+
+    /**
+     * Returns the heading of the conveyor belt on the given cell.
+     *
+     * @param cell the cell index
+     * @return the heading of the conveyor belt; null if there is no conveyor belt
+     */
+    public Heading getConveyorHeading(int cell) {
+        if (hasConveyorBelt(cell)) {
+            return HEADINGS[(cells[cell] >> CONVEYOR_HEADING_SHIFT) & 0x03];
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of the player on the given cell.
+     *
+     * @param cell the cell index
+     * @return the number of the player; {@link #NO_PLAYER} if the cell is empty
+     */
+    public int getPlayerAt(int cell) {
+        return occupants[cell];
+    }
+
+    /**
+     * Returns the cell of the player with the given number.
+     *
+     * @param player the number of the player
+     * @return the cell index; -1 if the player is not on the board
+     */
+    public int getPlayerCell(int player) {
+        return playerCells[player];
+    }
+
+    public Heading getPlayerHeading(int player) {
+        return HEADINGS[playerHeadings[player]];
+    }
+
+    public void setPlayerHeading(int player, @NotNull Heading heading) {
+        playerHeadings[player] = (byte) heading.ordinal();
+    }
+
+    /**
+     * Moves the player with the given number to the given cell, which must
+     * be empty.
+     *
+     * @param player the number of the player
+     * @param cell the cell index of the target
+     */
+    public void movePlayer(int player, int cell) {
+        int oldCell = playerCells[player];
+        if (oldCell >= 0) {
+            occupants[oldCell] = NO_PLAYER;
+        }
+        occupants[cell] = (short) player;
+        playerCells[player] = cell;
+    }
+
+}
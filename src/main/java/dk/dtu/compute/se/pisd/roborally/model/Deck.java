@@ -0,0 +1,92 @@
+package dk.dtu.compute.se.pisd.roborally.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.SplittableRandom;
+
+/**
+ * The deck of command cards of a game, from which the players are dealt
+ * their cards. The deck consists of {@link #COPIES} cards of each command,
+ * which are created once when the deck is created; dealing a card does not
+ * create a new one. Since command cards cannot be changed, the same card can
+ * be dealt again after the deck was shuffled.
+ *
+ * The deck is shuffled with its own random generator, so that games do not
+ * share a random generator, and so that the cards of a game can be dealt
+ * again exactly the same way from the same seed.
+ */
+public class Deck {
+
+    /**
+     * The number of cards of each command; this is enough for dealing
+     * {@link Player#NO_CARDS} cards to each of six players without shuffling.
+     */
+    public static final int COPIES = 8;
+
+    private final SplittableRandom random;
+
+    private final CommandCard[] cards;
+
+    private int next;
+
+    /**
+     * Creates a deck, which is shuffled with the given seed.
+     *
+     * @param seed the seed
+     */
+    public Deck(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * Creates a deck, which is shuffled with a random seed.
+     */
+    public Deck() {
+        this(new SplittableRandom());
+    }
+
+    private Deck(@NotNull SplittableRandom random) {
+        this.random = random;
+        Command[] commands = Command.values();
+        cards = new CommandCard[commands.length * COPIES];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = new CommandCard(commands[i % commands.length]);
+        }
+        shuffle();
+    }
+
+    /**
+     * Puts all cards back into the deck and shuffles it.
+     */
+    public void shuffle() {
+        // Fisher-Yates shuffle
+        for (int i = cards.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            CommandCard card = cards[i];
+            cards[i] = cards[j];
+            cards[j] = card;
+        }
+        next = 0;
+    }
+
+    /**
+     * Draws the next card from the deck. If all cards were drawn already,
+     * the deck is shuffled first.
+     *
+     * @return the card
+     */
+    public CommandCard draw() {
+        if (next == cards.length) {
+            shuffle();
+        }
+        return cards[next++];
+    }
+
+    /**
+     * @return the number of cards, which can be drawn before the deck is shuffled
+     */
+    public int getRemaining() {
+        return cards.length - next;
+    }
+
+}
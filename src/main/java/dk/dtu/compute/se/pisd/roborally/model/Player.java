@@ -48,6 +48,8 @@ public class Player extends Subject {
     private CommandCardField[] program;
     private CommandCardField[] cards;
 
+    private boolean dirty = false;
+
     public Player(@NotNull Board board, String color, @NotNull String name) {
         this.board = board;
         this.name = name;
@@ -73,6 +75,7 @@ public class Player extends Subject {
     public void setName(String name) {
         if (name != null && !name.equals(this.name)) {
             this.name = name;
+            dirty = true;
             notifyChange();
             if (space != null) {
                 space.playerChanged();
@@ -86,6 +89,7 @@ public class Player extends Subject {
 
     public void setColor(String color) {
         this.color = color;
+        dirty = true;
         notifyChange();
         if (space != null) {
             space.playerChanged();
@@ -107,6 +111,7 @@ public class Player extends Subject {
             if (space != null) {
                 space.setPlayer(this);
             }
+            dirty = true;
             notifyChange();
         }
     }
@@ -118,6 +123,7 @@ public class Player extends Subject {
     public void setHeading(@NotNull Heading heading) {
         if (heading != this.heading) {
             this.heading = heading;
+            dirty = true;
             notifyChange();
             if (space != null) {
                 space.playerChanged();
@@ -125,6 +131,25 @@ public class Player extends Subject {
         }
     }
 
+    /**
+     * Returns whether the name, colour, space or heading of this player were
+     * changed since the player was last marked as clean (see {@link #markClean()}).
+     * This is used for saving only the changed parts of a game. Changes of the
+     * player's command card fields are tracked by the fields themselves.
+     *
+     * @return true if this player was changed
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks this player as clean, i.e. as saved.
+     */
+    public void markClean() {
+        dirty = false;
+    }
+
     public CommandCardField getProgramField(int i) {
         return program[i];
     }
@@ -133,25 +158,18 @@ public class Player extends Subject {
         return cards[i];
     }
 
-    private static int lastCheckpoint = 0; // Tracks the highest checkpoint number passed
-    private int lastCheckpointNumber = 0;
+    private int lastCheckpoint = 0; // Tracks the highest checkpoint number passed by this player
 
     /**
      * passCheckpoint makes sure that teh player can't collect a checkpoint unless they have passed the previous checkpoint.
      * @param checkpointNumber the number of the checkpoint that was passed.
      */
     public void passCheckpoint(int checkpointNumber) {
+        // the progress is shown by the views observing the player, so that
+        // headless games do not write anything to the console
         if (checkpointNumber == lastCheckpoint + 1) {
             lastCheckpoint = checkpointNumber;
-            System.out.println("Player " + name + " passed checkpoint " + checkpointNumber);
             notifyChange();
-        } else if (checkpointNumber <= lastCheckpoint) {
-            System.out.println("Player " + name + " already passed checkpoint " + checkpointNumber);
-        } else {
-            System.out.println("Player " + name + " must first pass checkpoint " + (lastCheckpoint + 1));
-        }
-        if (checkpointNumber == lastCheckpointNumber + 1) {
-            lastCheckpointNumber++;
         }
     }
 
@@ -160,9 +178,17 @@ public class Player extends Subject {
      * @return returns the collected checkpoints and sends them to Board so the player can see their progress.
      */
     public int getCollectedCheckpoints() {
-        return lastCheckpointNumber;
+        return lastCheckpoint;
     }
-    public static int getLastCheckpoint() {
+
+    /**
+     * Returns the number of the last checkpoint this player has passed. Note that
+     * this is state of the individual player (and not of the game), so that
+     * different games can run in the same JVM without interfering.
+     *
+     * @return the number of the last checkpoint passed
+     */
+    public int getLastCheckpoint() {
         return lastCheckpoint;
     }
 
@@ -43,14 +43,24 @@ public class Space extends Subject {
 
     private Player player;
 
-    private List<Heading> walls = new ArrayList<>();
+    private final List<Heading> walls;
 
-    private List<FieldAction> actions = new ArrayList<>();
+    private final List<FieldAction> actions;
 
     public Space(Board board, int x, int y) {
+        this(board, x, y, new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Creates a space with the walls and actions of a {@link BoardLayout}.
+     * The lists are shared with the layout and can not be changed.
+     */
+    Space(Board board, int x, int y, List<Heading> walls, List<FieldAction> actions) {
         this.board = board;
         this.x = x;
         this.y = y;
+        this.walls = walls;
+        this.actions = actions;
         player = null;
     }
 
@@ -76,9 +86,15 @@ public class Space extends Subject {
 
     /**
      * Returns the walls (actually their direction) on this space.
-     * Note that clients may change this list; this should, however,
-     * be done only during the setup of the game (not while the game
-     * is running).
+     *
+     * The list can be changed only on boards created with their size (see
+     * {@link Board#Board(int, int, String)}), which is meant for building
+     * new boards; then, {@link Board#updateLayout()} must be called after
+     * the changes. Boards created from a {@link BoardLayout}, which includes
+     * all boards created by the {@link dk.dtu.compute.se.pisd.roborally.controller.BoardFactory}
+     * and loaded by {@link dk.dtu.compute.se.pisd.roborally.fileaccess.LoadBoard#loadBoard(String)},
+     * share this list with other boards; on these boards, the list can not
+     * be changed (changing it throws an {@link UnsupportedOperationException}).
      *
      * @return the list of walls on this space
      */
@@ -88,9 +104,15 @@ public class Space extends Subject {
 
     /**
      * Returns the list of field actions on this space.
-     * Note that clients may change this list; this should, however,
-     * be done only during the setup of the game (not while the game
-     * is running).
+     *
+     * The list can be changed only on boards created with their size (see
+     * {@link Board#Board(int, int, String)}), which is meant for building
+     * new boards; then, {@link Board#updateLayout()} must be called after
+     * the changes. Boards created from a {@link BoardLayout}, which includes
+     * all boards created by the {@link dk.dtu.compute.se.pisd.roborally.controller.BoardFactory}
+     * and loaded by {@link dk.dtu.compute.se.pisd.roborally.fileaccess.LoadBoard#loadBoard(String)},
+     * share this list with other boards; on these boards, the list can not
+     * be changed (changing it throws an {@link UnsupportedOperationException}).
      *
      * @return the list of field actions on this space
      */
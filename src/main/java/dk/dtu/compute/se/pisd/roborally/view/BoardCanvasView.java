@@ -0,0 +1,180 @@
+package dk.dtu.compute.se.pisd.roborally.view;
+
+import dk.dtu.compute.se.pisd.designpatterns.observer.Subject;
+import dk.dtu.compute.se.pisd.roborally.controller.Checkpoint;
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
+import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A view of the spaces of a board, which draws the board on two canvases
+ * instead of using a {@link SpaceView} node for each space. This is used by
+ * the {@link BoardView} for large boards, where tens of thousands of nodes
+ * would make the user interface slow.
+ *
+ * The static layer with the walls, conveyor belts and checkpoints is drawn
+ * once when the view is created. The robots are drawn on a second,
+ * transparent canvas on top of it. The view observes the players only: when
+ * a player changes, only the space it left and the space it is on now are
+ * repainted.
+ */
+public class BoardCanvasView extends Pane implements ViewObserver {
+
+    /**
+     * The maximum size of the canvases in pixels (in each dimension); for
+     * large boards, the spaces are drawn smaller than the {@link SpaceView}s.
+     */
+    final public static int MAX_CANVAS_SIZE = 2000;
+
+    final public static int MIN_SPACE_SIZE = 8;
+
+    private final Board board;
+
+    private final double size;
+
+    private final double scale;
+
+    private final Canvas staticLayer;
+
+    private final Canvas robotLayer;
+
+    private final Space[] playerSpaces;
+
+    public BoardCanvasView(@NotNull Board board) {
+        this.board = board;
+        size = Math.max(MIN_SPACE_SIZE,
+                Math.min(SpaceView.SPACE_WIDTH, MAX_CANVAS_SIZE / Math.max(board.width, board.height)));
+        scale = size / SpaceView.SPACE_WIDTH;
+
+        staticLayer = new Canvas(board.width * size, board.height * size);
+        robotLayer = new Canvas(board.width * size, board.height * size);
+        this.getChildren().addAll(staticLayer, robotLayer);
+
+        drawStaticLayer();
+
+        playerSpaces = new Space[board.getPlayersNumber()];
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Player player = board.getPlayer(i);
+            player.attach(this);
+            update(player);
+        }
+    }
+
+    private void drawStaticLayer() {
+        GraphicsContext gc = staticLayer.getGraphicsContext2D();
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setFont(Font.font(null, FontWeight.BOLD, Math.max(6, 12 * scale)));
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                drawSpace(gc, board.getSpace(x, y));
+            }
+        }
+    }
+
+    private void drawSpace(GraphicsContext gc, Space space) {
+        double left = space.x * size;
+        double top = space.y * size;
+        gc.setFill((space.x + space.y) % 2 == 0 ? Color.WHITE : Color.BLACK);
+        gc.fillRect(left, top, size, size);
+
+        for (FieldAction action : space.getActions()) {
+            if (action instanceof ConveyorBelt conveyorBelt && conveyorBelt.getHeading() != null) {
+                gc.save();
+                gc.translate(left + size / 2, top + size / 2);
+                gc.rotate(conveyorRotation(conveyorBelt.getHeading()));
+                gc.setFill(Color.LIGHTGRAY);
+                gc.fillPolygon(
+                        new double[]{-15 * scale, 15 * scale, 0},
+                        new double[]{8 * scale, 8 * scale, -20 * scale}, 3);
+                gc.restore();
+            }
+        }
+
+        double wall = Math.max(1, 5 * scale);
+        gc.setFill(Color.RED);
+        for (Heading heading : space.getWalls()) {
+            switch (heading) {
+                case NORTH -> gc.fillRect(left, top, size, wall);
+                case SOUTH -> gc.fillRect(left, top + size - wall, size, wall);
+                case WEST -> gc.fillRect(left, top, wall, size);
+                case EAST -> gc.fillRect(left + size - wall, top, wall, size);
+            }
+        }
+
+        Checkpoint checkpoint = space.getCheckpoint();
+        if (checkpoint != null) {
+            double radius = 15 * scale;
+            gc.setFill(Color.YELLOW);
+            gc.fillOval(left + size / 2 - radius, top + size / 2 - radius, 2 * radius, 2 * radius);
+            gc.setFill(Color.BLACK);
+            gc.fillText(String.valueOf(checkpoint.getNumber()), left + size / 2, top + size / 2);
+        }
+    }
+
+    private static double conveyorRotation(Heading heading) {
+        return switch (heading) {
+            case NORTH -> 0;
+            case EAST -> 90;
+            case SOUTH -> 180;
+            case WEST -> 270;
+        };
+    }
+
+    private void repaint(Space space) {
+        GraphicsContext gc = robotLayer.getGraphicsContext2D();
+        double left = space.x * size;
+        double top = space.y * size;
+        gc.clearRect(left, top, size, size);
+
+        Player player = space.getPlayer();
+        if (player != null) {
+            Color color;
+            try {
+                color = Color.valueOf(player.getColor());
+            } catch (Exception e) {
+                color = Color.MEDIUMPURPLE;
+            }
+            gc.save();
+            gc.translate(left + size / 2, top + size / 2);
+            gc.rotate((90 * player.getHeading().ordinal()) % 360);
+            gc.setFill(color);
+            gc.fillPolygon(
+                    new double[]{-10 * scale, 0, 10 * scale},
+                    new double[]{-10 * scale, 10 * scale, -10 * scale}, 3);
+            gc.restore();
+        }
+    }
+
+    @Override
+    public void updateView(Subject subject) {
+        if (subject instanceof Player player) {
+            int i = board.getPlayerNumber(player);
+            if (i < 0 || i >= playerSpaces.length) {
+                return;
+            }
+            Space oldSpace = playerSpaces[i];
+            Space space = player.getSpace();
+            if (oldSpace != null && oldSpace != space) {
+                repaint(oldSpace);
+            }
+            if (space != null) {
+                repaint(space);
+            }
+            playerSpaces[i] = space;
+        }
+    }
+
+}
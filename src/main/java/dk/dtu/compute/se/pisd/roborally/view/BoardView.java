@@ -43,9 +43,17 @@ public class BoardView extends VBox implements ViewObserver {
 
     private Board board;
 
+    /**
+     * Boards with more spaces than this are drawn by a {@link BoardCanvasView}
+     * instead of a {@link SpaceView} for every space.
+     */
+    final public static int CANVAS_THRESHOLD = 400;
+
     private GridPane mainBoardPane;
     private SpaceView[][] spaces;
 
+    private BoardCanvasView canvasView;
+
     private PlayersView playersView;
 
     private Label statusLabel;
@@ -54,27 +62,30 @@ public class BoardView extends VBox implements ViewObserver {
     public BoardView(@NotNull GameController gameController) {
         board = gameController.board;
 
-        mainBoardPane = new GridPane();
         playersView = new PlayersView(gameController);
         statusLabel = new Label("<no status>");
 
-        this.getChildren().add(mainBoardPane);
-        this.getChildren().add(playersView);
-        this.getChildren().add(statusLabel);
-
-        spaces = new SpaceView[board.width][board.height];
-
-
-
-        for (int x = 0; x < board.width; x++) {
-            for (int y = 0; y < board.height; y++) {
-                Space space = board.getSpace(x, y);
-                SpaceView spaceView = new SpaceView(space);
-                spaces[x][y] = spaceView;
-                mainBoardPane.add(spaceView, x, y);
+        if (board.width * board.height > CANVAS_THRESHOLD) {
+            canvasView = new BoardCanvasView(board);
+            this.getChildren().add(canvasView);
+        } else {
+            mainBoardPane = new GridPane();
+            this.getChildren().add(mainBoardPane);
+
+            spaces = new SpaceView[board.width][board.height];
+            for (int x = 0; x < board.width; x++) {
+                for (int y = 0; y < board.height; y++) {
+                    Space space = board.getSpace(x, y);
+                    SpaceView spaceView = new SpaceView(space);
+                    spaces[x][y] = spaceView;
+                    mainBoardPane.add(spaceView, x, y);
+                }
             }
         }
 
+        this.getChildren().add(playersView);
+        this.getChildren().add(statusLabel);
+
         board.attach(this);
         update(board);
     }
@@ -56,6 +56,8 @@ public class CardFieldView extends GridPane implements ViewObserver {
                     "application/x.roborally.command;uuid=" +
                     UUID.randomUUID());
 
+    final private static Command[] COMMANDS = Command.values();
+
     final public static int CARDFIELD_WIDTH = 65;
     final public static int CARDFIELD_HEIGHT = 100;
 
@@ -243,9 +245,19 @@ public class CardFieldView extends GridPane implements ViewObserver {
                         Object object = db.getContent(ROBO_RALLY_CARD);
                         if (object instanceof Integer) {
                             int number = (Integer) object;
-                            if (number < Command.values().length) {
-                                Command command = Command.values()[number];
-                                cardField.setCard(new CommandCard(command));
+                            if (number >= 0 && number < COMMANDS.length) {
+                                Command command = COMMANDS[number];
+                                // the card is moved from the source field, which
+                                // is emptied when the drag is done
+                                CommandCard card = null;
+                                if (event.getGestureSource() instanceof CardFieldView source &&
+                                        source.field != null) {
+                                    card = source.field.getCard();
+                                }
+                                if (card == null || card.command != command) {
+                                    card = CommandCard.of(command);
+                                }
+                                cardField.setCard(card);
                                 event.setDropCompleted(true);
                                 event.consume();
                                 return;
@@ -50,7 +50,11 @@ public class SpaceView extends StackPane implements ViewObserver {
 
     public final Space space;
 
-
+    /**
+     * The arrow representing the robot on this space; it is created only once
+     * and made invisible, when there is no robot on this space.
+     */
+    private final Polygon robot;
 
     public SpaceView(@NotNull Space space) {
         this.space = space;
@@ -71,98 +75,93 @@ public class SpaceView extends StackPane implements ViewObserver {
             this.setStyle("-fx-background-color: black;");
         }
 
-        // updatePlayer();
+        // The walls and actions on a space do not change during the game,
+        // so they are drawn only once here; the robot is added on top of them.
+        drawStaticLayer();
+        robot = new Polygon(0.0, 0.0,
+                10.0, 20.0,
+                20.0, 0.0 );
+        robot.setVisible(false);
+        this.getChildren().add(robot);
 
         // This space view should listen to changes of the space
         space.attach(this);
         update(space);
     }
 
+    private void drawStaticLayer() {
+        for (FieldAction action : space.getActions()) {
+            if (action instanceof ConveyorBelt conveyorBelt) {
+                Polygon arrow = new Polygon(-15.0, 8.0, 15.0, 8.0, 0.0, -20.0);
+                arrow.setFill(Color.LIGHTGRAY);
+                arrow.setOpacity(1); // Slightly transparent
+
+                // Rotate based on conveyor direction
+                switch (conveyorBelt.getHeading()) {
+                    case NORTH -> arrow.setRotate(0);
+                    case EAST -> arrow.setRotate(90);
+                    case SOUTH -> arrow.setRotate(180);
+                    case WEST -> arrow.setRotate(270);
+                }
+                this.getChildren().add(arrow);
+            }
+        }
+
+        if (space.getWalls().contains(Heading.NORTH)) {
+            Rectangle northWall = new Rectangle(SPACE_WIDTH, 5, Color.RED);
+            StackPane.setAlignment(northWall, Pos.TOP_CENTER);
+            this.getChildren().add(northWall);
+        }
+        if (space.getWalls().contains(Heading.SOUTH)) {
+            Rectangle southWall = new Rectangle(SPACE_WIDTH, 5, Color.RED);
+            StackPane.setAlignment(southWall, Pos.BOTTOM_CENTER);
+            this.getChildren().add(southWall);
+        }
+        if (space.getWalls().contains(Heading.WEST)) {
+            Rectangle westWall = new Rectangle(5, SPACE_HEIGHT, Color.RED);
+            StackPane.setAlignment(westWall, Pos.CENTER_LEFT);
+            this.getChildren().add(westWall);
+        }
+        if (space.getWalls().contains(Heading.EAST)) {
+            Rectangle eastWall = new Rectangle(5, SPACE_HEIGHT, Color.RED);
+            StackPane.setAlignment(eastWall, Pos.CENTER_RIGHT);
+            this.getChildren().add(eastWall);
+        }
+
+        Checkpoint checkpoint = space.getCheckpoint();
+        if (checkpoint != null) {
+            Circle checkpointCircle = new Circle(15, Color.YELLOW); // Yellow circle
+            Label checkpointLabel = new Label(String.valueOf(checkpoint.getNumber())); // Checkpoint number
+            checkpointLabel.setTextFill(Color.BLACK);
+            checkpointLabel.setStyle("-fx-font-weight: bold;");
+
+            StackPane checkpointPane = new StackPane(checkpointCircle, checkpointLabel);
+            this.getChildren().add(checkpointPane);
+        }
+    }
+
     private void updatePlayer() {
         Player player = space.getPlayer();
         if (player != null) {
-            Polygon arrow = new Polygon(0.0, 0.0,
-                    10.0, 20.0,
-                    20.0, 0.0 );
+            Color color;
             try {
-                arrow.setFill(Color.valueOf(player.getColor()));
+                color = Color.valueOf(player.getColor());
             } catch (Exception e) {
-                arrow.setFill(Color.MEDIUMPURPLE);
+                color = Color.MEDIUMPURPLE;
             }
-
-            arrow.setRotate((90*player.getHeading().ordinal())%360);
-            this.getChildren().add(arrow);
+            robot.setFill(color);
+            robot.setRotate((90*player.getHeading().ordinal())%360);
+            robot.setVisible(true);
+        } else {
+            robot.setVisible(false);
         }
     }
 
-
-
-
-
     @Override
     public void updateView(Subject subject) {
         if (subject == this.space) {
-            this.getChildren().clear();
-
-            for (FieldAction action : space.getActions()) {
-                if (action instanceof ConveyorBelt conveyorBelt) {
-                    Polygon arrow = new Polygon(-15.0, 8.0, 15.0, 8.0, 0.0, -20.0);
-                    arrow.setFill(Color.LIGHTGRAY);
-                    arrow.setOpacity(1); // Slightly transparent
-
-                    // Rotate based on conveyor direction
-                    switch (conveyorBelt.getHeading()) {
-                        case NORTH -> arrow.setRotate(0);
-                        case EAST -> arrow.setRotate(90);
-                        case SOUTH -> arrow.setRotate(180);
-                        case WEST -> arrow.setRotate(270);
-                    }
-                    this.getChildren().add(arrow);
-                }
-            }
-
-            if (space.getWalls().contains(Heading.NORTH)) {
-                Rectangle northWall = new Rectangle(SPACE_WIDTH, 5, Color.RED);
-                StackPane.setAlignment(northWall, Pos.TOP_CENTER);
-                this.getChildren().add(northWall);
-            }
-            if (space.getWalls().contains(Heading.SOUTH)) {
-                Rectangle southWall = new Rectangle(SPACE_WIDTH, 5, Color.RED);
-                StackPane.setAlignment(southWall, Pos.BOTTOM_CENTER);
-                this.getChildren().add(southWall);
-            }
-            if (space.getWalls().contains(Heading.WEST)) {
-                Rectangle westWall = new Rectangle(5, SPACE_HEIGHT, Color.RED);
-                StackPane.setAlignment(westWall, Pos.CENTER_LEFT);
-                this.getChildren().add(westWall);
-            }
-            if (space.getWalls().contains(Heading.EAST)) {
-                Rectangle eastWall = new Rectangle(5, SPACE_HEIGHT, Color.RED);
-                StackPane.setAlignment(eastWall, Pos.CENTER_RIGHT);
-                this.getChildren().add(eastWall);
-            }
-
-            Checkpoint checkpoint = space.getCheckpoint();
-            if (checkpoint != null) {
-                Circle checkpointCircle = new Circle(15, Color.YELLOW); // Yellow circle
-                Label checkpointLabel = new Label(String.valueOf(checkpoint.getNumber())); // Checkpoint number
-                checkpointLabel.setTextFill(Color.BLACK);
-                checkpointLabel.setStyle("-fx-font-weight: bold;");
-
-                StackPane checkpointPane = new StackPane(checkpointCircle, checkpointLabel);
-                this.getChildren().add(checkpointPane);
-            }
-
-
-
-        }
-
-
-            // XXX A3: drawing walls and action on the space (could be done
-            //         here); it would be even better if fixed things on
-            //         spaces  are only drawn once (and not on every update)
-
             updatePlayer();
         }
     }
 
+}
@@ -43,6 +43,8 @@ public interface ViewObserver extends Observer {
     /**
      * Implements the update method of the {@link Observer} in such a way that
      * the update is done in the JavaFX application thread, if necessary.
+     * Updates from other threads are coalesced by the {@link ViewUpdateDispatcher},
+     * so that the view is updated at most once per frame.
      *
      * @param subject the subject which changed
      */
@@ -55,7 +57,7 @@ public interface ViewObserver extends Observer {
         if (Platform.isFxApplicationThread()) {
             updateView(subject);
         } else {
-            Platform.runLater(() -> updateView(subject));
+            ViewUpdateDispatcher.schedule(this, subject);
         }
     }
 
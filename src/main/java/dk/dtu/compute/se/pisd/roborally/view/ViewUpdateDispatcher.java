@@ -0,0 +1,74 @@
+package dk.dtu.compute.se.pisd.roborally.view;
+
+import dk.dtu.compute.se.pisd.designpatterns.observer.Subject;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the updates of views which are triggered outside the JavaFX
+ * application thread, and executes them once per frame (pulse) in the
+ * JavaFX application thread. Updates of the same view for the same subject
+ * which are triggered in between two frames are coalesced, so that every
+ * view is updated at most once per frame for every subject it observes,
+ * no matter how often the model changes.
+ *
+ * The dispatcher uses an {@link AnimationTimer}, which runs only as long
+ * as there are updates to be executed.
+ */
+final class ViewUpdateDispatcher {
+
+    private record Update(ViewObserver view, Subject subject) { }
+
+    private static final Object lock = new Object();
+
+    private static final Set<Update> pending = new LinkedHashSet<>();
+
+    private static boolean running = false;
+
+    private static final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            List<Update> updates;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    running = false;
+                    stop();
+                    return;
+                }
+                updates = new ArrayList<>(pending);
+                pending.clear();
+            }
+            for (Update update : updates) {
+                update.view().updateView(update.subject());
+            }
+        }
+    };
+
+    private ViewUpdateDispatcher() {
+    }
+
+    /**
+     * Schedules an update of the given view for the given subject, which will
+     * be executed in the JavaFX application thread with the next frame. If the
+     * same update is scheduled already, it is not scheduled again.
+     *
+     * @param view the view to be updated
+     * @param subject the subject which changed
+     */
+    static void schedule(@NotNull ViewObserver view, @NotNull Subject subject) {
+        synchronized (lock) {
+            pending.add(new Update(view, subject));
+            if (!running) {
+                running = true;
+                Platform.runLater(timer::start);
+            }
+        }
+    }
+
+}
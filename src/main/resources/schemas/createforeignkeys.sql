@@ -0,0 +1,11 @@
+/* The foreign key for the current player is added after the Player table
+   exists, since not all databases (in particular the embedded ones used for
+   testing) accept references to tables which are not created yet. This
+   script is run only when the Game table is created, since existing schemas
+   have this foreign key already (without a name). */
+SET FOREIGN_KEY_CHECKS = 0;;
+
+ALTER TABLE Game ADD CONSTRAINT fk_game_currentplayer
+  FOREIGN KEY (gameID, currentPlayer) REFERENCES Player(gameID, playerID);;
+
+SET FOREIGN_KEY_CHECKS = 1;;
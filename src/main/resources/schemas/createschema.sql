@@ -5,15 +5,18 @@ CREATE TABLE IF NOT EXISTS Game (
   gameID int NOT NULL UNIQUE AUTO_INCREMENT,
   
   name varchar(255),
+  boardName varchar(255),
+  created timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
 
   phase tinyint,
   step tinyint,
   currentPlayer tinyint NULL,
+
+  version int NOT NULL DEFAULT 0,
   
-  PRIMARY KEY (gameID),
-  FOREIGN KEY (gameID, currentPlayer) REFERENCES Player(gameID, playerID)
+  PRIMARY KEY (gameID)
 );;
-  
+
 CREATE TABLE IF NOT EXISTS Player (
   gameID int NOT NULL,
   playerID tinyint NOT NULL,
@@ -29,6 +32,35 @@ CREATE TABLE IF NOT EXISTS Player (
   FOREIGN KEY (gameID) REFERENCES Game(gameID)
 );;
 
+CREATE TABLE IF NOT EXISTS CardField (
+  gameID int NOT NULL,
+  playerID tinyint NOT NULL,
+  /* 0 for the fields of the program, 1 for the cards in the hand */
+  type tinyint NOT NULL,
+  position tinyint NOT NULL,
+
+  command tinyint NULL,
+  visible boolean NOT NULL DEFAULT TRUE,
+
+  PRIMARY KEY (gameID, playerID, type, position),
+  FOREIGN KEY (gameID, playerID) REFERENCES Player(gameID, playerID)
+);;
+
+/* Adds the columns, which were added to the Game table later, to existing
+   schemas. When a column exists already, its statement fails, which is
+   ignored. */
+ALTER TABLE Game ADD COLUMN version int NOT NULL DEFAULT 0;;
+ALTER TABLE Game ADD COLUMN boardName varchar(255);;
+ALTER TABLE Game ADD COLUMN created timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP;;
+
+/* Indexes for listing the games page by page (by gameID) with a filter
+   on the phase, the board or the time of creation. They are created after
+   the columns were added to existing schemas. When the indexes exist
+   already, these statements fail, which is ignored. */
+CREATE INDEX idx_game_phase ON Game(phase, gameID);;
+CREATE INDEX idx_game_boardname ON Game(boardName, gameID);;
+CREATE INDEX idx_game_created ON Game(created);;
+
 SET FOREIGN_KEY_CHECKS = 1;;
 
 // TODO still some stuff missing here
\ No newline at end of file
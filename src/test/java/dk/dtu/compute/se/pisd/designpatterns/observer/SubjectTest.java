@@ -0,0 +1,80 @@
+package dk.dtu.compute.se.pisd.designpatterns.observer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubjectTest {
+
+    private static class TestSubject extends Subject {
+
+        void change() {
+            notifyChange();
+        }
+
+    }
+
+    private final List<Subject> updates = new ArrayList<>();
+
+    private final Observer observer = updates::add;
+
+    private TestSubject first;
+
+    private TestSubject second;
+
+    @BeforeEach
+    void setUp() {
+        first = new TestSubject();
+        second = new TestSubject();
+        first.attach(observer);
+        second.attach(observer);
+    }
+
+    @Test
+    void testNotifyWithoutBatch() {
+        first.change();
+        first.change();
+
+        assertEquals(List.of(first, first), updates, "Every change should be notified immediately!");
+    }
+
+    @Test
+    void testBatch() {
+        Subject.batch(() -> {
+            second.change();
+            first.change();
+            second.change();
+            assertTrue(updates.isEmpty(), "Changes should not be notified during a batch!");
+        });
+
+        assertEquals(List.of(second, first), updates, "Every changed subject should be notified once!");
+    }
+
+    @Test
+    void testNestedBatch() {
+        Subject.batch(() -> {
+            Subject.batch(first::change);
+            assertTrue(updates.isEmpty(), "Changes should be notified at the end of the outermost batch!");
+            first.change();
+        });
+
+        assertEquals(List.of(first), updates);
+    }
+
+    @Test
+    void testBatchWithException() {
+        assertThrows(IllegalStateException.class, () -> Subject.batch(() -> {
+            first.change();
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(List.of(first), updates, "Changes should be notified even if the batch fails!");
+        second.change();
+        assertEquals(List.of(first, second), updates, "Batch should be finished after an exception!");
+    }
+
+}
@@ -0,0 +1,53 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardFactoryTest {
+
+    private final BoardFactory factory = BoardFactory.getInstance();
+
+    @Test
+    void testBoardNamesAreNormalised() {
+        assertEquals(BoardFactory.ADVANCED, factory.createBoard("advanced").boardName);
+        assertEquals(BoardFactory.ADVANCED, factory.createBoard("<advanced>").boardName,
+                "The old name of the advanced board should still be accepted!");
+        assertEquals(BoardFactory.BASIC, factory.createBoard(null).boardName);
+        assertEquals(BoardFactory.BASIC, factory.createBoard("defaultboard").boardName);
+        assertSame(factory.getLayout("advanced"), factory.getLayout("<advanced>"));
+
+        Board advanced = factory.createBoard("advanced");
+        assertEquals(15, advanced.width);
+        assertNotNull(advanced.getSpace(11, 6).getCheckpoint(), "Advanced board should have checkpoint 3!");
+    }
+
+    @Test
+    void testLayoutIsSharedAndStateIsNot() {
+        Board first = factory.createBoard("advanced");
+        Board second = factory.createBoard("advanced");
+
+        Space space = first.getSpace(1, 1);
+        assertNotSame(space, second.getSpace(1, 1));
+        assertSame(space.getWalls(), second.getSpace(1, 1).getWalls(), "Walls should be shared!");
+        assertSame(space.getActions(), second.getSpace(1, 1).getActions(), "Actions should be shared!");
+        assertThrows(UnsupportedOperationException.class, () -> space.getWalls().add(Heading.EAST),
+                "Shared walls should not be changeable!");
+
+        assertNull(first.getNeighbour(first.getSpace(1, 1), Heading.WEST), "Wall should block the move!");
+        assertSame(first.getSpace(1, 0), first.getNeighbour(first.getSpace(1, 1), Heading.NORTH),
+                "Neighbours should be spaces of the board itself!");
+        assertEquals(3, first.getSpacesWithAction(Checkpoint.class).size());
+        assertSame(first.getSpace(5, 1), first.getSpacesWithAction(Checkpoint.class).get(0));
+
+        Player player = new Player(first, "red", "Player 1");
+        first.addPlayer(player);
+        player.setSpace(first.getSpace(2, 2));
+        assertNull(second.getSpace(2, 2).getPlayer(), "Players should not be shared!");
+    }
+
+}
@@ -0,0 +1,92 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.BoardLayout;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static dk.dtu.compute.se.pisd.roborally.model.TestBoards.assertSameBoard;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardGeneratorTest {
+
+    @Test
+    void testBoardsAreDeterministic() {
+        assertSameBoard(new BoardGenerator(42, 12, 10).generate(), new BoardGenerator(42, 12, 10).generate());
+
+        Board board = new BoardGenerator(42, 12, 10).generate();
+        Board other = new BoardGenerator(43, 12, 10).generate();
+        assertThrows(AssertionError.class, () -> assertSameBoard(board, other),
+                "Different seeds should result in different boards!");
+    }
+
+    @Test
+    void testCheckpointsAreReachable() {
+        for (long seed = 0; seed < 200; seed++) {
+            Board board = new BoardGenerator(seed, 8 + (int) (seed % 20), 8 + (int) (seed % 13)).generate();
+            assertTrue(BoardGenerator.isValid(board), "Generated board should be valid: " + board.boardName);
+
+            List<Space> checkpoints = board.getSpacesWithAction(Checkpoint.class);
+            assertTrue(checkpoints.size() >= 3, "Board should have a route of checkpoints!");
+            assertFalse(board.getSpacesWithAction(ConveyorBelt.class).isEmpty(), "Board should have conveyor belts!");
+            int[] distances = BoardGenerator.distances(board, board.getSpace(0, 0));
+            for (Space space : checkpoints) {
+                assertTrue(distances[space.y * board.width + space.x] > 0,
+                        "Checkpoint should be reachable on " + board.boardName + "!");
+                assertEquals(1, space.getActions().size(), "Checkpoint should not be on a conveyor belt!");
+            }
+        }
+    }
+
+    @Test
+    void testInvalidBoardIsDetected() {
+        Board board = new BoardGenerator(7, 8, 8).generate();
+        Space checkpoint = board.getSpacesWithAction(Checkpoint.class).get(0);
+        // wall the checkpoint in
+        Board walled = new Board(board.width, board.height, board.boardName);
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                walled.getSpace(x, y).getActions().addAll(board.getSpace(x, y).getActions());
+            }
+        }
+        walled.getSpace(checkpoint.x, checkpoint.y).getWalls().addAll(List.of(Heading.values()));
+        walled.updateLayout();
+        assertFalse(BoardGenerator.isValid(walled), "Unreachable checkpoint should be detected!");
+    }
+
+    @Test
+    void testParallelGeneration() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Board> boards = BoardGenerator.generateAll(pool, 1000, 64, 16, 12);
+            assertEquals(64, boards.size());
+            for (int i = 0; i < boards.size(); i++) {
+                assertSameBoard(new BoardGenerator(1000 + i, 16, 12).generate(), boards.get(i));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testGeneratedBoardsInFactory() {
+        BoardFactory factory = BoardFactory.getInstance();
+        Board board = factory.createBoard("generated:4711:20x15");
+        assertEquals("generated:4711:20x15", board.boardName);
+        assertEquals(20, board.width);
+        assertEquals(15, board.height);
+        assertSameBoard(new BoardGenerator(4711, 20, 15).generate(), board);
+
+        BoardLayout layout = factory.getLayout("generated:4711:20x15");
+        BoardLayout other = factory.getLayout("generated:04711:20x15");
+        assertNotSame(layout, other, "Layouts of generated boards should not be cached!");
+        assertSameBoard(board, new Board(other));
+        assertEquals(BoardFactory.BASIC, factory.createBoard("generated:4711").boardName);
+        assertThrows(IllegalArgumentException.class, () -> factory.createBoard("generated:1:2x1000"));
+    }
+
+}
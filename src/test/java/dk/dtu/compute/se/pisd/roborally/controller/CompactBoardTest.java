@@ -0,0 +1,130 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactBoardTest {
+
+    private final int NO_PLAYERS = 6;
+
+    private Board board;
+
+    private GameController gameController;
+
+    @BeforeEach
+    void setUp() {
+        board = BoardFactory.getInstance().createBoard("advanced");
+        gameController = new GameController(board);
+        for (int i = 0; i < NO_PLAYERS; i++) {
+            Player player = new Player(board, null, "Player " + i);
+            board.addPlayer(player);
+            player.setSpace(board.getSpace(i, i));
+            player.setHeading(Heading.values()[i % Heading.values().length]);
+        }
+    }
+
+    @Test
+    void testLayout() {
+        CompactBoard compact = CompactBoard.of(board);
+
+        int cell = compact.cellOf(1, 1);
+        assertTrue(compact.hasWall(cell, Heading.WEST));
+        assertFalse(compact.hasWall(cell, Heading.EAST));
+        assertEquals(Heading.NORTH, compact.getConveyorHeading(cell));
+        assertNull(compact.getConveyorHeading(compact.cellOf(2, 2)));
+        assertEquals(-1, compact.getNeighbour(cell, Heading.WEST));
+        assertEquals(-1, compact.getNeighbour(compact.cellOf(0, 1), Heading.EAST), "Wall on the target should block, too!");
+        assertEquals(compact.cellOf(2, 1), compact.getNeighbour(cell, Heading.EAST));
+        assertEquals(3, compact.getPlayerAt(compact.cellOf(3, 3)));
+        assertEquals(CompactBoard.NO_PLAYER, compact.getPlayerAt(compact.cellOf(3, 4)));
+    }
+
+    @Test
+    void testNeighboursAsOnBoard() {
+        Random random = new Random(815);
+        for (int i = 0; i < 100; i++) {
+            Board other = TestBoards.randomBoard(random, "random");
+            CompactBoard compact = CompactBoard.of(other);
+            for (int x = 0; x < other.width; x++) {
+                for (int y = 0; y < other.height; y++) {
+                    for (Heading heading : Heading.values()) {
+                        Space neighbour = other.getNeighbour(other.getSpace(x, y), heading);
+                        assertEquals(neighbour == null ? -1 : compact.cellOf(neighbour.x, neighbour.y),
+                                compact.getNeighbour(compact.cellOf(x, y), heading),
+                                "Neighbour " + heading + " of " + x + "," + y + " should be the same as on the board!");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMovementAsOnBoard() {
+        Random random = new Random(42);
+        Command[] commands = Command.values();
+        CompactBoard compact = CompactBoard.of(board);
+
+        for (int i = 0; i < 10000; i++) {
+            int player = random.nextInt(NO_PLAYERS);
+            Command command = commands[random.nextInt(commands.length)];
+            if (command == Command.LoR) {
+                continue;
+            }
+
+            board.setCurrentPlayer(board.getPlayer(player));
+            switch (command) {
+                case FORWARD -> gameController.moveForward(board.getPlayer(player));
+                case BACKWARD -> gameController.moveBackward(board.getPlayer(player));
+                case FAST_FORWARD -> gameController.fastForward(board.getPlayer(player));
+                case RIGHT -> gameController.turnRight(board.getPlayer(player));
+                case LEFT -> gameController.turnLeft(board.getPlayer(player));
+                case U_TURN -> gameController.uTurn(board.getPlayer(player));
+            }
+            gameController.executeCommand(compact, player, command);
+
+            for (int j = 0; j < NO_PLAYERS; j++) {
+                Space space = board.getPlayer(j).getSpace();
+                assertEquals(compact.cellOf(space.x, space.y), compact.getPlayerCell(j),
+                        "Position of player " + j + " differs after step " + i + "!");
+                assertEquals(board.getPlayer(j).getHeading(), compact.getPlayerHeading(j),
+                        "Heading of player " + j + " differs after step " + i + "!");
+            }
+        }
+    }
+
+    @Test
+    void testPlayerNotOnBoard() {
+        Player player = new Player(board, null, "Player " + NO_PLAYERS);
+        board.addPlayer(player);
+        CompactBoard compact = CompactBoard.of(board);
+        assertEquals(-1, compact.getPlayerCell(NO_PLAYERS));
+
+        gameController.moveForward(compact, NO_PLAYERS);
+        gameController.moveBackward(compact, NO_PLAYERS);
+        gameController.fastForward(compact, NO_PLAYERS);
+        gameController.turnRight(compact, NO_PLAYERS);
+        assertEquals(-1, compact.getPlayerCell(NO_PLAYERS), "Player should still not be on the board!");
+        for (int i = 0; i < NO_PLAYERS; i++) {
+            assertEquals(compact.cellOf(i, i), compact.getPlayerCell(i), "Other players should not have moved!");
+        }
+    }
+
+    @Test
+    void testWriteTo() {
+        CompactBoard compact = CompactBoard.of(board);
+        gameController.moveForward(compact, 2);
+        gameController.turnRight(compact, 1);
+
+        compact.writeTo(board);
+
+        assertEquals(board.getSpace(2, 1), board.getPlayer(2).getSpace());
+        assertEquals(Heading.values()[1].next(), board.getPlayer(1).getHeading());
+        assertNull(board.getSpace(2, 2).getPlayer());
+    }
+
+}
@@ -0,0 +1,206 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConveyorBeltResolverTest {
+
+    private final int TEST_WIDTH = 8;
+    private final int TEST_HEIGHT = 8;
+
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board(TEST_WIDTH, TEST_HEIGHT);
+    }
+
+    private void addBelt(int x, int y, Heading heading) {
+        ConveyorBelt conveyorBelt = new ConveyorBelt(heading);
+        board.getSpace(x, y).getActions().add(conveyorBelt);
+    }
+
+    private Player addPlayer(int x, int y) {
+        Player player = new Player(board, null, "Player " + board.getPlayersNumber());
+        board.addPlayer(player);
+        player.setSpace(board.getSpace(x, y));
+        return player;
+    }
+
+    @Test
+    void testChain() {
+        addBelt(1, 1, Heading.EAST);
+        addBelt(2, 1, Heading.EAST);
+        Player first = addPlayer(1, 1);
+        Player second = addPlayer(2, 1);
+
+        ConveyorBeltResolver.moveRobots(board);
+
+        assertEquals(board.getSpace(2, 1), first.getSpace(), "First robot should follow the second one!");
+        assertEquals(board.getSpace(3, 1), second.getSpace(), "Second robot should have moved one space!");
+    }
+
+    @Test
+    void testMoveOnlyOnce() {
+        addBelt(1, 1, Heading.EAST);
+        addBelt(2, 1, Heading.EAST);
+        Player player = addPlayer(1, 1);
+
+        ConveyorBeltResolver.moveRobots(board);
+
+        assertEquals(board.getSpace(2, 1), player.getSpace(), "Robot should have moved one space only!");
+    }
+
+    @Test
+    void testMergeBlocks() {
+        addBelt(1, 1, Heading.EAST);
+        addBelt(3, 1, Heading.WEST);
+        Player left = addPlayer(1, 1);
+        Player right = addPlayer(3, 1);
+
+        assertEquals(0, ConveyorBeltResolver.moveRobots(board), "No robot should have moved!");
+        assertEquals(board.getSpace(1, 1), left.getSpace());
+        assertEquals(board.getSpace(3, 1), right.getSpace());
+    }
+
+    @Test
+    void testSwapBlocks() {
+        addBelt(1, 1, Heading.EAST);
+        addBelt(2, 1, Heading.WEST);
+        addPlayer(1, 1);
+        addPlayer(2, 1);
+
+        assertEquals(0, ConveyorBeltResolver.moveRobots(board), "Robots should not swap their places!");
+    }
+
+    @Test
+    void testBlockedByRobotNotOnBelt() {
+        addBelt(1, 1, Heading.EAST);
+        addBelt(2, 1, Heading.EAST);
+        Player first = addPlayer(1, 1);
+        Player second = addPlayer(2, 1);
+        board.getSpace(3, 1).getWalls().add(Heading.WEST);
+        board.updateLayout();
+
+        assertEquals(0, ConveyorBeltResolver.moveRobots(board), "Chain should be blocked by the wall!");
+        assertEquals(board.getSpace(1, 1), first.getSpace());
+        assertEquals(board.getSpace(2, 1), second.getSpace());
+    }
+
+    @Test
+    void testCycle() {
+        addBelt(1, 1, Heading.EAST);
+        addBelt(2, 1, Heading.SOUTH);
+        addBelt(2, 2, Heading.WEST);
+        addBelt(1, 2, Heading.NORTH);
+        Player a = addPlayer(1, 1);
+        Player b = addPlayer(2, 1);
+        Player c = addPlayer(2, 2);
+
+        assertEquals(3, ConveyorBeltResolver.moveRobots(board));
+        assertEquals(board.getSpace(2, 1), a.getSpace());
+        assertEquals(board.getSpace(2, 2), b.getSpace());
+        assertEquals(board.getSpace(1, 2), c.getSpace());
+
+        addPlayer(1, 1);
+        assertEquals(4, ConveyorBeltResolver.moveRobots(board), "A full cycle should rotate!");
+    }
+
+    /**
+     * Compares the resolver with a straightforward reference implementation
+     * on many random boards with dense belts, walls and robots.
+     */
+    @Test
+    void testAgainstReference() {
+        Random random = new Random(4711);
+        Heading[] headings = Heading.values();
+        for (int run = 0; run < 2000; run++) {
+            int width = 2 + random.nextInt(6);
+            int height = 2 + random.nextInt(6);
+            board = new Board(width, height);
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    if (random.nextInt(4) > 0) {
+                        addBelt(x, y, headings[random.nextInt(headings.length)]);
+                    }
+                    if (random.nextInt(8) == 0) {
+                        board.getSpace(x, y).getWalls().add(headings[random.nextInt(headings.length)]);
+                    }
+                }
+            }
+            board.updateLayout();
+            int noPlayers = 1 + random.nextInt(width * height);
+            for (int i = 0; i < noPlayers; i++) {
+                Space space = board.getSpace(random.nextInt(width), random.nextInt(height));
+                if (space.getPlayer() == null) {
+                    addPlayer(space.x, space.y);
+                }
+            }
+
+            Map<Player, Space> expected = referenceMoves(board);
+            assertEquals(expected, ConveyorBeltResolver.computeMoves(board), "Moves differ in run " + run);
+
+            ConveyorBeltResolver.moveRobots(board);
+            for (int i = 0; i < board.getPlayersNumber(); i++) {
+                Player player = board.getPlayer(i);
+                assertEquals(player, player.getSpace().getPlayer(), "Robot and space should be consistent in run " + run);
+            }
+        }
+    }
+
+    /**
+     * Reference implementation: starts with all robots that have a free target
+     * (no wall, no competing robot, no swap) and repeatedly removes the robots
+     * whose target is occupied by a robot which does not move, until nothing
+     * changes anymore.
+     */
+    private Map<Player, Space> referenceMoves(Board board) {
+        Map<Player, Space> targets = new HashMap<>();
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Player player = board.getPlayer(i);
+            for (FieldAction action : player.getSpace().getActions()) {
+                if (action instanceof ConveyorBelt conveyorBelt) {
+                    targets.put(player, board.getNeighbour(player.getSpace(), conveyorBelt.getHeading()));
+                }
+            }
+        }
+
+        Set<Player> moving = new HashSet<>();
+        for (Map.Entry<Player, Space> entry : targets.entrySet()) {
+            Space target = entry.getValue();
+            if (target == null) {
+                continue;
+            }
+            long contenders = targets.values().stream().filter(t -> t == target).count();
+            Player occupant = target.getPlayer();
+            boolean swap = occupant != null && targets.get(occupant) == entry.getKey().getSpace();
+            if (contenders == 1 && !swap) {
+                moving.add(entry.getKey());
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = moving.removeIf(player -> {
+                Player occupant = targets.get(player).getPlayer();
+                return occupant != null && !moving.contains(occupant);
+            });
+        }
+
+        Map<Player, Space> moves = new HashMap<>();
+        for (Player player : moving) {
+            moves.put(player, targets.get(player));
+        }
+        return moves;
+    }
+
+}
@@ -1,11 +1,18 @@
 package dk.dtu.compute.se.pisd.roborally.controller;
 
+import dk.dtu.compute.se.pisd.designpatterns.observer.Observer;
 import dk.dtu.compute.se.pisd.roborally.model.*;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameControllerTest {
@@ -60,6 +67,19 @@ class GameControllerTest {
         Assertions.assertNull(board.getSpace(0, 0).getPlayer(), "Space (0,0) should be empty!");
     }
 
+    @Test
+    void moveForwardBlockedByWall() {
+        Board board = gameController.board;
+        Player current = board.getCurrentPlayer();
+        board.getSpace(0, 1).getWalls().add(Heading.NORTH);
+        board.updateLayout();
+
+        gameController.moveForward(current);
+
+        assertEquals(current, board.getSpace(0, 0).getPlayer(), "Wall on the target space should block the move!");
+        Assertions.assertNull(board.getSpace(0, 1).getPlayer(), "Space (0,1) should be empty!");
+    }
+
     @Test
     public void testFastForward() {
         Board board = gameController.board;
@@ -182,6 +202,138 @@ class GameControllerTest {
         assertEquals(board.getPlayer(0), board.getCurrentPlayer(), "First player should be current player!");
     }
 
+    private Board createGame(int noPlayers) {
+        Board board = new Board(TEST_WIDTH, TEST_HEIGHT);
+        for (int i = 0; i < noPlayers; i++) {
+            Player player = new Player(board, null, "Player " + i);
+            board.addPlayer(player);
+            player.setSpace(board.getSpace(i, i));
+        }
+        board.setCurrentPlayer(board.getPlayer(0));
+        return board;
+    }
+
+    @Test
+    void testDealingIsReproducible() {
+        Board first = createGame(6);
+        Board second = createGame(6);
+        GameController firstController = new GameController(first, new Deck(4711));
+        GameController secondController = new GameController(second, new Deck(4711));
+
+        for (int round = 0; round < 10; round++) {
+            firstController.startProgrammingPhase();
+            secondController.startProgrammingPhase();
+            for (int i = 0; i < first.getPlayersNumber(); i++) {
+                for (int j = 0; j < Player.NO_CARDS; j++) {
+                    assertEquals(first.getPlayer(i).getCardField(j).getCard().command,
+                            second.getPlayer(i).getCardField(j).getCard().command,
+                            "Games with the same seed should be dealt the same cards!");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testCardsAreDealtFromTheDeck() {
+        Deck deck = new Deck(42);
+        Board board = createGame(6);
+        GameController controller = new GameController(board, deck);
+        controller.startProgrammingPhase();
+        assertEquals(Command.values().length * Deck.COPIES - 6 * Player.NO_CARDS, deck.getRemaining());
+
+        int[] counts = new int[Command.values().length];
+        Set<CommandCard> cards = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            for (int j = 0; j < Player.NO_CARDS; j++) {
+                CommandCard card = board.getPlayer(i).getCardField(j).getCard();
+                counts[card.command.ordinal()]++;
+                cards.add(card);
+            }
+        }
+        assertEquals(6 * Player.NO_CARDS, cards.size(), "No card should be dealt twice in a round!");
+        for (int count : counts) {
+            assertTrue(count <= Deck.COPIES, "No more cards of a command than in the deck should be dealt!");
+        }
+
+        controller.startProgrammingPhase();
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            for (int j = 0; j < Player.NO_CARDS; j++) {
+                cards.add(board.getPlayer(i).getCardField(j).getCard());
+            }
+        }
+        assertTrue(cards.size() <= Command.values().length * Deck.COPIES,
+                "Cards of the deck should be dealt again in the next round!");
+    }
+
+    @Test
+    void testListenerIsInformedAfterEveryRegister() {
+        Board board = gameController.board;
+        gameController.startProgrammingPhase();
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Player player = board.getPlayer(i);
+            for (int j = 0; j < Player.NO_REGISTERS; j++) {
+                player.getProgramField(j).setCard(CommandCard.of(j == 2 ? Command.LoR : Command.RIGHT));
+            }
+        }
+        List<Integer> registers = new ArrayList<>();
+        List<Integer> notifications = new ArrayList<>();
+        int[] notified = {0};
+        // the observer is kept in a variable, since subjects keep weak references only
+        Observer observer = subject -> notified[0]++;
+        board.attach(observer);
+        gameController.setRegisterListener(register -> {
+            registers.add(register);
+            notifications.add(notified[0]);
+        });
+        gameController.finishProgrammingPhase();
+
+        gameController.executePrograms();
+        assertEquals(List.of(0, 1), registers, "Listener should be informed until the interactive card!");
+        assertEquals(Phase.PLAYER_INTERACTION, board.getPhase());
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            gameController.lor(board.getCurrentPlayer(), "left");
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4), registers, "Listener should be informed once per register!");
+        assertEquals(Phase.PROGRAMMING, board.getPhase());
+        for (int i = 1; i < notifications.size(); i++) {
+            assertTrue(notifications.get(i) > notifications.get(i - 1),
+                    "Changes of a register should be notified before the listener is informed!");
+        }
+    }
+
+    @Test
+    void testGameOnBoardWithoutName() {
+        Board board = gameController.board;
+        board.boardName = null;
+        gameController.finnishGamePhase();
+        assertNotEquals(Phase.FINISHED, board.getPhase(), "Game on a board without a name should not be won!");
+    }
+
+    @Test
+    void testGeneratedBoardWinningCondition() {
+        Board board = BoardFactory.getInstance().createBoard("generated:42:10x10");
+        GameController controller = new GameController(board);
+        Player player = new Player(board, null, "Player 1");
+        board.addPlayer(player);
+        List<Space> checkpoints = board.getSpacesWithAction(Checkpoint.class);
+        Space last = null;
+        for (Space space : checkpoints) {
+            if (space.getCheckpoint().getNumber() == checkpoints.size()) {
+                last = space;
+            }
+        }
+        assertNotNull(last, "Generated board should have a last checkpoint!");
+        player.setSpace(last);
+        controller.finnishGamePhase();
+        assertNotEquals(Phase.FINISHED, board.getPhase(), "Player who did not pass all checkpoints should not win!");
+
+        for (int i = 1; i <= checkpoints.size(); i++) {
+            player.passCheckpoint(i);
+        }
+        controller.finnishGamePhase();
+        assertEquals(Phase.FINISHED, board.getPhase(), "Player on the last checkpoint should have won!");
+    }
+
     @Test
     void testFinishProgrammingPhase() {
         Board board = gameController.board;
@@ -217,6 +369,35 @@ class GameControllerTest {
         assertEquals(player1, board.getSpace(1, 2).getPlayer(), "Player 1 should not have moved into Player 2.");
     }
 
+    @Test
+    void testActionIndex() {
+        Board board = gameController.board;
+        ConveyorBelt conveyorBelt = new ConveyorBelt(Heading.EAST);
+        board.getSpace(4, 1).getActions().add(conveyorBelt);
+        board.getSpace(2, 5).getActions().add(new Checkpoint(1));
+        board.updateLayout();
+
+        assertEquals(1, board.getSpacesWithAction(ConveyorBelt.class).size(), "There should be one conveyor belt!");
+        assertEquals(board.getSpace(4, 1), board.getSpacesWithAction(ConveyorBelt.class).get(0), "Conveyor belt should be on Space (4,1)!");
+        assertEquals(2, board.getSpacesWithAction(FieldAction.class).size(), "There should be two spaces with actions!");
+    }
+
+    @Test
+    void testActivateFieldActions() {
+        Board board = gameController.board;
+        Player player = board.getPlayer(1);
+        ConveyorBelt conveyorBelt = new ConveyorBelt(Heading.EAST);
+        board.getSpace(1, 1).getActions().add(conveyorBelt);
+        board.getSpace(2, 1).getActions().add(new Checkpoint(1));
+        board.updateLayout();
+
+        gameController.activateConveyorBelts();
+        gameController.activateCheckPoints();
+
+        assertEquals(player, board.getSpace(2, 1).getPlayer(), "Player 1 should have been moved by the conveyor belt!");
+        assertEquals(1, player.getLastCheckpoint(), "Player 1 should have reached checkpoint 1!");
+    }
+
 
 }
 
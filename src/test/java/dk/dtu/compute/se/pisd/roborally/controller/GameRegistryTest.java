@@ -0,0 +1,114 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRegistryTest {
+
+    private final int NO_GAMES = 1000;
+
+    private final int NO_ROUNDS = 10;
+
+    private GameRegistry registry;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new GameRegistry();
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        registry = null;
+    }
+
+    private Board createBoard(int noPlayers) {
+        Board board = BoardFactory.getInstance().createBoard("advanced");
+        for (int i = 0; i < noPlayers; i++) {
+            Player player = new Player(board, "red", "Player " + i);
+            board.addPlayer(player);
+            player.setSpace(board.getSpace(i, i));
+        }
+        return board;
+    }
+
+    @Test
+    void testCheckpointsAreNotShared() {
+        GameController first = registry.getGame(registry.register(createBoard(2)));
+        GameController second = registry.getGame(registry.register(createBoard(2)));
+
+        first.board.getPlayer(0).passCheckpoint(1);
+        first.board.getPlayer(0).passCheckpoint(2);
+
+        assertEquals(2, first.board.getPlayer(0).getLastCheckpoint());
+        assertEquals(0, first.board.getPlayer(1).getLastCheckpoint(), "Checkpoints of other players must not change!");
+        assertEquals(0, second.board.getPlayer(0).getLastCheckpoint(), "Checkpoints of other games must not change!");
+    }
+
+    @Test
+    void testConcurrentGamesDoNotInterfere() throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        int[] ids = new int[NO_GAMES];
+        for (int g = 0; g < NO_GAMES; g++) {
+            ids[g] = registry.register(createBoard(2 + g % 5));
+        }
+        assertEquals(NO_GAMES, registry.size());
+
+        for (int g = 0; g < NO_GAMES; g++) {
+            final int game = g;
+            final GameController gameController = registry.getGame(ids[g]);
+            futures.add(executor.submit(() -> {
+                // a deterministic part, which depends on the number of the game
+                Board board = gameController.board;
+                Player player = board.getPlayer(0);
+                player.setSpace(board.getSpace(14, 0));
+                player.setHeading(Heading.SOUTH);
+                for (int i = 0; i < game % 5; i++) {
+                    gameController.moveForward(player);
+                }
+                assertEquals(board.getSpace(14, game % 5), player.getSpace(),
+                        "Player of game " + game + " should be at (14," + (game % 5) + ")!");
+
+                // and a random part, playing some rounds
+                new SimulationEngine(gameController).run(NO_ROUNDS);
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        for (int g = 0; g < NO_GAMES; g++) {
+            Board board = registry.getGame(ids[g]).board;
+            int occupied = 0;
+            for (int x = 0; x < board.width; x++) {
+                for (int y = 0; y < board.height; y++) {
+                    Player player = board.getSpace(x, y).getPlayer();
+                    if (player != null) {
+                        occupied++;
+                        assertSame(board, player.board, "Game " + g + " contains a player of another game!");
+                    }
+                }
+            }
+            assertEquals(board.getPlayersNumber(), occupied, "Game " + g + " should have all its players on the board!");
+            for (int i = 0; i < board.getPlayersNumber(); i++) {
+                Player player = board.getPlayer(i);
+                assertSame(board, player.getSpace().board, "Player " + i + " of game " + g + " is on another board!");
+                assertSame(player, player.getSpace().getPlayer());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.designpatterns.observer.Subject;
+import dk.dtu.compute.se.pisd.roborally.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationEngineTest {
+
+    private Board board;
+
+    private SimulationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        board = BoardFactory.getInstance().createBoard(BoardFactory.BASIC);
+        Player player = new Player(board, "red", "Player 0");
+        board.addPlayer(player);
+        player.setSpace(board.getSpace(4, 1));
+        player.setHeading(Heading.EAST);
+        Player other = new Player(board, "blue", "Player 1");
+        board.addPlayer(other);
+        other.setSpace(board.getSpace(0, 6));
+        engine = new SimulationEngine(board, 42);
+    }
+
+    /**
+     * Programs the given player with the given commands, one card for each
+     * register.
+     */
+    private void program(Player player, Command... commands) {
+        for (int i = 0; i < Player.NO_REGISTERS; i++) {
+            player.getProgramField(i).setCard(CommandCard.of(commands[i]));
+        }
+    }
+
+    private void assertNoObservers(Subject subject, String name) {
+        assertFalse(subject.hasObservers(), name + " should not have observers in a headless game!");
+    }
+
+    @Test
+    void testGameIsPlayedToTheEnd() {
+        // player 0 reaches checkpoint 1 at (5,1) in the first round and
+        // checkpoint 2 at (7,3) in the second; player 1 only turns around
+        engine.setProgrammer(player -> {
+            if (player != board.getPlayer(0)) {
+                program(player, Command.LEFT, Command.LEFT, Command.LEFT, Command.LEFT, Command.U_TURN);
+            } else if (player.getLastCheckpoint() == 0) {
+                program(player, Command.FORWARD, Command.LEFT, Command.RIGHT, Command.LEFT, Command.RIGHT);
+            } else {
+                program(player, Command.FORWARD, Command.FORWARD, Command.RIGHT, Command.FORWARD, Command.FORWARD);
+            }
+        });
+        List<Player> winners = new ArrayList<>();
+        engine.setWinListener(winners::add);
+
+        Player winner = engine.run(10);
+
+        assertEquals(board.getPlayer(0), winner, "Player 0 should have won the game!");
+        assertEquals(List.of(board.getPlayer(0)), winners, "Win listener should have been informed once!");
+        assertTrue(engine.isFinished());
+        assertEquals(Phase.FINISHED, board.getPhase(), "Game should be finished!");
+        assertEquals(2, engine.getRounds(), "Game should have been won in the second round!");
+        assertEquals(board.getSpace(7, 3), winner.getSpace());
+        assertFalse(engine.runRound(), "No round should be played after the end of the game!");
+
+        assertNoObservers(board, "Board");
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                assertNoObservers(board.getSpace(x, y), "Space " + x + "," + y);
+            }
+        }
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Player player = board.getPlayer(i);
+            assertNoObservers(player, "Player " + i);
+            for (int j = 0; j < Player.NO_REGISTERS; j++) {
+                assertNoObservers(player.getProgramField(j), "Program field " + j + " of player " + i);
+            }
+            for (int j = 0; j < Player.NO_CARDS; j++) {
+                assertNoObservers(player.getCardField(j), "Card field " + j + " of player " + i);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    private ConnectionPool pool;
+
+    private ConnectionPool createPool(int maxSize, long maxLifetime, long validationInterval) {
+        String url = "jdbc:h2:mem:pool" + databases.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        pool = new ConnectionPool(url, "sa", "", maxSize, maxLifetime, validationInterval, 200);
+        return pool;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void testConnectionIsReused() throws SQLException {
+        createPool(2, ConnectionPool.DEFAULT_MAX_LIFETIME, ConnectionPool.DEFAULT_VALIDATION_INTERVAL);
+
+        Connection first;
+        try (PooledConnection pooled = pool.getConnection()) {
+            first = pooled.getConnection();
+        }
+        assertEquals(1, pool.getIdleCount());
+        try (PooledConnection pooled = pool.getConnection()) {
+            assertSame(first, pooled.getConnection(), "Returned connection should be reused!");
+        }
+    }
+
+    @Test
+    void testPoolIsBounded() throws SQLException {
+        createPool(2, ConnectionPool.DEFAULT_MAX_LIFETIME, ConnectionPool.DEFAULT_VALIDATION_INTERVAL);
+
+        PooledConnection first = pool.getConnection();
+        PooledConnection second = pool.getConnection();
+        assertThrows(SQLException.class, () -> pool.getConnection(), "Pool should not hand out more than 2 connections!");
+
+        first.close();
+        try (PooledConnection third = pool.getConnection()) {
+            assertNotNull(third);
+        }
+        second.close();
+    }
+
+    @Test
+    void testStatementCache() throws SQLException {
+        createPool(1, ConnectionPool.DEFAULT_MAX_LIFETIME, ConnectionPool.DEFAULT_VALIDATION_INTERVAL);
+
+        PreparedStatement statement;
+        try (PooledConnection pooled = pool.getConnection()) {
+            statement = pooled.prepareStatement("SELECT 1");
+            assertSame(statement, pooled.prepareStatement("SELECT 1"));
+            assertNotSame(statement, pooled.prepareStatement("SELECT 2"));
+        }
+        try (PooledConnection pooled = pool.getConnection()) {
+            assertSame(statement, pooled.prepareStatement("SELECT 1"), "Statement should be cached with the connection!");
+        }
+    }
+
+    @Test
+    void testMaxLifetime() throws SQLException {
+        createPool(1, 0, ConnectionPool.DEFAULT_VALIDATION_INTERVAL);
+
+        Connection first;
+        try (PooledConnection pooled = pool.getConnection()) {
+            first = pooled.getConnection();
+        }
+        assertTrue(first.isClosed(), "Expired connection should be closed!");
+        try (PooledConnection pooled = pool.getConnection()) {
+            assertNotSame(first, pooled.getConnection());
+        }
+    }
+
+    @Test
+    void testIdleValidation() throws SQLException {
+        createPool(1, ConnectionPool.DEFAULT_MAX_LIFETIME, 0);
+
+        Connection first;
+        try (PooledConnection pooled = pool.getConnection()) {
+            first = pooled.getConnection();
+        }
+        // simulates a connection which was closed by the server while idle
+        first.close();
+
+        try (PooledConnection pooled = pool.getConnection()) {
+            assertNotSame(first, pooled.getConnection(), "Broken connection should be replaced!");
+            assertTrue(pooled.getConnection().isValid(1));
+        }
+    }
+
+    @Test
+    void testOpenTransactionIsRolledBack() throws SQLException {
+        createPool(1, ConnectionPool.DEFAULT_MAX_LIFETIME, ConnectionPool.DEFAULT_VALIDATION_INTERVAL);
+
+        try (PooledConnection pooled = pool.getConnection()) {
+            pooled.getConnection().createStatement().executeUpdate("CREATE TABLE T (x int)");
+            pooled.getConnection().setAutoCommit(false);
+            pooled.getConnection().createStatement().executeUpdate("INSERT INTO T VALUES (1)");
+        }
+        try (PooledConnection pooled = pool.getConnection()) {
+            assertTrue(pooled.getConnection().getAutoCommit(), "Returned connection should be in auto commit mode!");
+            var rs = pooled.getConnection().createStatement().executeQuery("SELECT COUNT(*) FROM T");
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1), "Uncommitted insert should have been rolled back!");
+        }
+    }
+
+}
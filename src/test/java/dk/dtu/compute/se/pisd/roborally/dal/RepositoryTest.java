@@ -0,0 +1,336 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
+import dk.dtu.compute.se.pisd.roborally.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryTest {
+
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    private Connector connector;
+
+    private Repository repository;
+
+    @BeforeEach
+    void setUp() {
+        connector = new Connector("jdbc:h2:mem:repository" + databases.incrementAndGet() +
+                ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        repository = new Repository(connector);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connector.close();
+    }
+
+    private Board createBoard(int noPlayers) {
+        Board board = BoardFactory.getInstance().createBoard(null);
+        for (int i = 0; i < noPlayers; i++) {
+            Player player = new Player(board, "red", "Player " + i);
+            board.addPlayer(player);
+            player.setSpace(board.getSpace(i, i));
+            player.setHeading(Heading.values()[i % Heading.values().length]);
+        }
+        board.setCurrentPlayer(board.getPlayer(0));
+        return board;
+    }
+
+    private void assertSameGame(Board expected, Board actual) {
+        assertNotNull(actual, "Game should have been loaded!");
+        assertEquals(expected.getGameId(), actual.getGameId());
+        assertEquals(expected.getPhase(), actual.getPhase());
+        assertEquals(expected.getStep(), actual.getStep());
+        assertEquals(expected.getPlayerNumber(expected.getCurrentPlayer()),
+                actual.getPlayerNumber(actual.getCurrentPlayer()));
+        assertEquals(expected.getPlayersNumber(), actual.getPlayersNumber());
+        for (int i = 0; i < expected.getPlayersNumber(); i++) {
+            Player player = expected.getPlayer(i);
+            Player loaded = actual.getPlayer(i);
+            assertEquals(player.getName(), loaded.getName());
+            assertEquals(player.getColor(), loaded.getColor());
+            assertEquals(player.getSpace().x, loaded.getSpace().x);
+            assertEquals(player.getSpace().y, loaded.getSpace().y);
+            assertEquals(player.getHeading(), loaded.getHeading());
+        }
+    }
+
+    @Test
+    void testCreateUpdateAndLoad() {
+        Board board = createBoard(3);
+        assertTrue(repository.createGameInDB(board));
+        assertNotNull(board.getGameId());
+        assertSameGame(board, repository.loadGameFromDB(board.getGameId()));
+
+        board.setPhase(Phase.ACTIVATION);
+        board.setStep(2);
+        board.setCurrentPlayer(board.getPlayer(2));
+        board.getPlayer(1).setSpace(board.getSpace(5, 6));
+        board.getPlayer(1).setHeading(Heading.EAST);
+        board.getPlayer(2).setName("Renamed");
+        board.getPlayer(2).setColor("purple");
+        assertTrue(repository.updateGameInDB(board));
+        assertSameGame(board, repository.loadGameFromDB(board.getGameId()));
+
+        assertEquals(1, repository.getGames().size());
+    }
+
+    @Test
+    void testBoardIsLoadedByName() {
+        Board board = BoardFactory.getInstance().createBoard("advanced");
+        Player player = new Player(board, "red", "Player 0");
+        board.addPlayer(player);
+        player.setSpace(board.getSpace(12, 7));
+        board.setCurrentPlayer(player);
+        assertTrue(repository.createGameInDB(board));
+
+        Board loaded = repository.loadGameFromDB(board.getGameId());
+        assertEquals(BoardFactory.ADVANCED, loaded.boardName, "Advanced game should be loaded on the advanced board!");
+        assertEquals(board.width, loaded.width);
+        assertEquals(12, loaded.getPlayer(0).getSpace().x);
+    }
+
+    @Test
+    void testUpdateOfMissingGameFails() {
+        Board board = createBoard(2);
+        board.setGameId(4711);
+
+        assertFalse(repository.updateGameInDB(board), "Game which is not in the DB should not be updated!");
+    }
+
+    private void assertSameCards(Board expected, Board actual) {
+        for (int i = 0; i < expected.getPlayersNumber(); i++) {
+            Player player = expected.getPlayer(i);
+            Player loaded = actual.getPlayer(i);
+            for (int j = 0; j < Player.NO_REGISTERS; j++) {
+                assertSameField(player.getProgramField(j), loaded.getProgramField(j));
+            }
+            for (int j = 0; j < Player.NO_CARDS; j++) {
+                assertSameField(player.getCardField(j), loaded.getCardField(j));
+            }
+        }
+    }
+
+    private void assertSameField(CommandCardField expected, CommandCardField actual) {
+        if (expected.getCard() == null) {
+            assertNull(actual.getCard(), "Field should not have a card!");
+        } else {
+            assertNotNull(actual.getCard(), "Field should have a card!");
+            assertEquals(expected.getCard().command, actual.getCard().command);
+        }
+        assertEquals(expected.isVisible(), actual.isVisible());
+    }
+
+    @Test
+    void testCardFieldsAreSavedAndLoaded() {
+        Board board = createBoard(6);
+        Command[] commands = Command.values();
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Player player = board.getPlayer(i);
+            for (int j = 0; j < Player.NO_CARDS; j++) {
+                player.getCardField(j).setCard(new CommandCard(commands[(i + j) % commands.length]));
+            }
+        }
+        assertTrue(repository.createGameInDB(board));
+        assertSameCards(board, repository.loadGameFromDB(board.getGameId()));
+
+        // program some registers in the middle of a round
+        Player player = board.getPlayer(3);
+        player.getProgramField(0).setCard(player.getCardField(2).getCard());
+        player.getCardField(2).setCard(null);
+        player.getProgramField(1).setVisible(false);
+        assertTrue(repository.updateGameInDB(board));
+
+        Board loaded = repository.loadGameFromDB(board.getGameId());
+        assertSameCards(board, loaded);
+        assertFalse(loaded.getPlayer(3).getProgramField(0).isDirty(), "Loaded field should be clean!");
+        CommandCard card = loaded.getPlayer(3).getProgramField(0).getCard();
+        assertSame(CommandCard.of(card.command), card, "Loaded cards should be the shared cards!");
+    }
+
+    @Test
+    void testOnlyChangedPlayersAreWritten() throws Exception {
+        Board board = createBoard(3);
+        assertTrue(repository.createGameInDB(board));
+        assertFalse(board.getPlayer(1).isDirty(), "Player should be clean after the game was created!");
+
+        // change the row of player 2 behind the repository's back, so that
+        // it can be seen whether the row is written again
+        try (PooledConnection pooled = connector.getConnection();
+             PreparedStatement ps = pooled.getConnection().prepareStatement(
+                     "UPDATE Player SET positionX = 7 WHERE gameID = ? AND playerID = 2")) {
+            ps.setInt(1, board.getGameId());
+            assertEquals(1, ps.executeUpdate());
+        }
+
+        board.getPlayer(1).setSpace(board.getSpace(4, 5));
+        assertTrue(repository.updateGameInDB(board));
+        assertEquals(1, board.getVersion());
+
+        Board loaded = repository.loadGameFromDB(board.getGameId());
+        assertEquals(4, loaded.getPlayer(1).getSpace().x, "Changed player should have been written!");
+        assertEquals(7, loaded.getPlayer(2).getSpace().x, "Unchanged player should not have been written!");
+        assertEquals(1, loaded.getVersion());
+        assertFalse(loaded.isDirty(), "Loaded game should be clean!");
+
+        assertTrue(repository.updateGameInDB(board), "Saving an unchanged game should succeed!");
+        assertEquals(1, board.getVersion(), "Saving an unchanged game should not write anything!");
+    }
+
+    @Test
+    void testConcurrentChangesAreDetected() {
+        Board board = createBoard(2);
+        assertTrue(repository.createGameInDB(board));
+        Board first = repository.loadGameFromDB(board.getGameId());
+        Board second = repository.loadGameFromDB(board.getGameId());
+
+        first.setStep(3);
+        assertTrue(repository.updateGameInDB(first));
+        second.getPlayer(0).setHeading(Heading.WEST);
+        assertFalse(repository.updateGameInDB(second), "Game saved in the meantime should not be overwritten!");
+
+        Board loaded = repository.loadGameFromDB(board.getGameId());
+        assertEquals(3, loaded.getStep());
+        assertEquals(board.getPlayer(0).getHeading(), loaded.getPlayer(0).getHeading());
+        assertEquals(1, loaded.getVersion());
+    }
+
+    @Test
+    void testGamesArePaginatedAndFiltered() {
+        List<Integer> ids = new ArrayList<>();
+        for (int g = 0; g < 25; g++) {
+            Board board = createBoard(2);
+            board.boardName = g % 5 == 0 ? "advanced" : "basic";
+            board.setPhase(g % 2 == 0 ? Phase.PROGRAMMING : Phase.ACTIVATION);
+            assertTrue(repository.createGameInDB(board));
+            ids.add(board.getGameId());
+        }
+
+        List<Integer> listed = new ArrayList<>();
+        Integer afterId = null;
+        List<GameInDB> page;
+        do {
+            page = repository.getGames(GameFilter.ALL, afterId, 10);
+            assertTrue(page.size() <= 10, "Page should not be larger than the limit!");
+            for (GameInDB game : page) {
+                listed.add(game.id);
+                afterId = game.id;
+            }
+        } while (page.size() == 10);
+        List<Integer> expected = new ArrayList<>(ids);
+        expected.sort(Comparator.reverseOrder());
+        assertEquals(expected, listed, "All games should be listed once, newest first!");
+
+        List<GameInDB> advanced = repository.getGames(
+                new GameFilter(Phase.PROGRAMMING, "advanced", null, null), null, 100);
+        assertEquals(3, advanced.size());
+        for (GameInDB game : advanced) {
+            assertEquals("advanced", game.boardName);
+            assertEquals(Phase.PROGRAMMING, game.phase);
+            assertNotNull(game.created);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(25, repository.getGames(
+                new GameFilter(null, null, now.minusHours(1), now.plusHours(1)), null, 100).size());
+        assertTrue(repository.getGames(
+                new GameFilter(null, null, now.plusHours(1), null), null, 100).isEmpty(),
+                "No game should have been created in the future!");
+    }
+
+    @Test
+    void testExistingSchemaIsUpgraded() throws Exception {
+        String url = "jdbc:h2:mem:repository" + databases.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            // the schema before the columns and indexes for listing games were added
+            statement.executeUpdate("CREATE TABLE Game (gameID int NOT NULL UNIQUE AUTO_INCREMENT, " +
+                    "name varchar(255), phase tinyint, step tinyint, currentPlayer tinyint NULL, " +
+                    "PRIMARY KEY (gameID))");
+            statement.executeUpdate("CREATE TABLE Player (gameID int NOT NULL, playerID tinyint NOT NULL, " +
+                    "name varchar(255), colour varchar(31), positionX int, positionY int, heading tinyint, " +
+                    "PRIMARY KEY (gameID, playerID), FOREIGN KEY (gameID) REFERENCES Game(gameID))");
+            statement.executeUpdate("ALTER TABLE Game ADD FOREIGN KEY (gameID, currentPlayer) " +
+                    "REFERENCES Player(gameID, playerID)");
+
+            Connector upgraded = new Connector(url, "sa", "");
+            try {
+                Set<String> indexes = new HashSet<>();
+                try (ResultSet rs = connection.getMetaData().getIndexInfo(null, null, "GAME", false, false)) {
+                    while (rs.next()) {
+                        indexes.add(rs.getString("INDEX_NAME").toLowerCase());
+                    }
+                }
+                assertTrue(indexes.containsAll(List.of("idx_game_phase", "idx_game_boardname", "idx_game_created")),
+                        "Indexes should have been added to the existing schema: " + indexes);
+
+                Set<String> foreignKeys = new HashSet<>();
+                try (ResultSet rs = connection.getMetaData().getImportedKeys(null, null, "GAME")) {
+                    while (rs.next()) {
+                        foreignKeys.add(rs.getString("FK_NAME"));
+                    }
+                }
+                assertEquals(1, foreignKeys.size(), "Foreign key should not have been added twice!");
+
+                Repository upgradedRepository = new Repository(upgraded);
+                Board board = createBoard(2);
+                board.boardName = BoardFactory.ADVANCED;
+                assertTrue(upgradedRepository.createGameInDB(board));
+                assertEquals(1, upgradedRepository.getGames(
+                        new GameFilter(null, BoardFactory.ADVANCED, null, null), null, 10).size());
+            } finally {
+                upgraded.close();
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentSaves() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Board>> futures = new ArrayList<>();
+            for (int g = 0; g < 40; g++) {
+                final int game = g;
+                futures.add(executor.submit(() -> {
+                    Board board = createBoard(2 + game % 5);
+                    assertTrue(repository.createGameInDB(board));
+                    for (int i = 0; i < 5; i++) {
+                        Player player = board.getPlayer(i % board.getPlayersNumber());
+                        player.setSpace(board.getSpace((game + i) % board.width, 7));
+                        board.setStep(i);
+                        assertTrue(repository.updateGameInDB(board));
+                    }
+                    return board;
+                }));
+            }
+            for (Future<Board> future : futures) {
+                Board board = future.get();
+                assertSameGame(board, repository.loadGameFromDB(board.getGameId()));
+            }
+            assertEquals(40, repository.getGames().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
+import dk.dtu.compute.se.pisd.roborally.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindRepositoryTest {
+
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    /**
+     * A repository which counts the games written to the database.
+     */
+    private static class CountingRepository extends Repository {
+
+        final AtomicInteger creates = new AtomicInteger();
+
+        final AtomicInteger updates = new AtomicInteger();
+
+        /**
+         * The number of the next writes which fail (as if the database
+         * was not available).
+         */
+        final AtomicInteger failures = new AtomicInteger();
+
+        CountingRepository(Connector connector) {
+            super(connector);
+        }
+
+        @Override
+        Integer createGameInDB(GameSnapshot game) {
+            creates.incrementAndGet();
+            if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                return null;
+            }
+            return super.createGameInDB(game);
+        }
+
+        @Override
+        boolean updateGameInDB(GameSnapshot game) {
+            updates.incrementAndGet();
+            return super.updateGameInDB(game);
+        }
+
+    }
+
+    private Connector connector;
+
+    private CountingRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        connector = new Connector("jdbc:h2:mem:writebehind" + databases.incrementAndGet() +
+                ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        repository = new CountingRepository(connector);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connector.close();
+    }
+
+    private Board createBoard() {
+        Board board = BoardFactory.getInstance().createBoard(null);
+        for (int i = 0; i < 2; i++) {
+            Player player = new Player(board, "red", "Player " + i);
+            board.addPlayer(player);
+            player.setSpace(board.getSpace(i, i));
+        }
+        board.setCurrentPlayer(board.getPlayer(0));
+        return board;
+    }
+
+    @Test
+    void testSavesAreCoalesced() {
+        WriteBehindRepository writeBehind = new WriteBehindRepository(() -> repository, 60000);
+        Board board = createBoard();
+        Player player = board.getPlayer(1);
+
+        for (int i = 0; i < 100; i++) {
+            player.setSpace(board.getSpace(i % board.width, 5));
+            writeBehind.saveGame(board);
+        }
+        assertEquals(1, writeBehind.getPendingCount());
+        writeBehind.flush();
+        assertEquals(1, repository.creates.get(), "Game should have been created once!");
+        assertEquals(0, repository.updates.get());
+        assertNotNull(board.getGameId(), "Game id should have been set!");
+
+        for (int i = 0; i < 50; i++) {
+            board.setStep(i % Player.NO_REGISTERS);
+            player.setHeading(Heading.values()[i % 4]);
+            writeBehind.saveGame(board);
+        }
+        writeBehind.shutdown();
+        assertEquals(1, repository.updates.get(), "Saves should have been coalesced into one update!");
+        assertEquals(0, writeBehind.getPendingCount());
+
+        Board loaded = repository.loadGameFromDB(board.getGameId());
+        assertEquals(board.getStep(), loaded.getStep());
+        assertEquals(player.getHeading(), loaded.getPlayer(1).getHeading());
+        assertEquals(player.getSpace().x, loaded.getPlayer(1).getSpace().x);
+    }
+
+    @Test
+    void testSavesAreWrittenInTime() throws InterruptedException {
+        WriteBehindRepository writeBehind = new WriteBehindRepository(() -> repository, 20);
+        Board board = createBoard();
+
+        writeBehind.saveGame(board);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (board.getGameId() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(board.getGameId(), "Game should have been written without a flush!");
+        writeBehind.shutdown();
+    }
+
+    @Test
+    void testFailedWritesAreRetried() throws InterruptedException {
+        WriteBehindRepository writeBehind = new WriteBehindRepository(() -> repository, 10);
+        repository.failures.set(3);
+        Board board = createBoard();
+
+        // the game is saved only once, so that only the retries can write it
+        writeBehind.saveGame(board);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (board.getGameId() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(board.getGameId(), "Game should have been written when the database is back!");
+        assertEquals(4, repository.creates.get(), "Game should have been written after three failed attempts!");
+        assertEquals(0, writeBehind.getPendingCount());
+        writeBehind.shutdown();
+    }
+
+    @Test
+    void testConflictsAreReported() {
+        WriteBehindRepository writeBehind = new WriteBehindRepository(() -> repository, 60000);
+        List<Board> conflicts = new CopyOnWriteArrayList<>();
+        writeBehind.setConflictListener(conflicts::add);
+        Board board = createBoard();
+        assertTrue(repository.createGameInDB(board));
+        Board other = repository.loadGameFromDB(board.getGameId());
+
+        // the game is saved by someone else in the meantime
+        other.setStep(2);
+        assertTrue(repository.updateGameInDB(other));
+        board.getPlayer(0).setHeading(Heading.WEST);
+        writeBehind.saveGame(board);
+        writeBehind.flush();
+
+        assertEquals(List.of(board), conflicts, "Dropped changes should have been reported!");
+        assertEquals(0, writeBehind.getPendingCount());
+        writeBehind.shutdown();
+    }
+
+    @Test
+    void testSaveDoesNotBlock() {
+        WriteBehindRepository writeBehind = new WriteBehindRepository(() -> {
+            try {
+                // a slow database connection
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return repository;
+        }, 0);
+        Board board = createBoard();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            board.setStep(i % Player.NO_REGISTERS);
+            writeBehind.saveGame(board);
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsed < 250, "Saving should not wait for the database (took " + elapsed + " ms)!");
+
+        writeBehind.shutdown();
+        assertNotNull(board.getGameId());
+    }
+
+}
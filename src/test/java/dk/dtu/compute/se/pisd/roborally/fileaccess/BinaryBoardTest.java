@@ -0,0 +1,77 @@
+package dk.dtu.compute.se.pisd.roborally.fileaccess;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static dk.dtu.compute.se.pisd.roborally.model.TestBoards.assertSameBoard;
+import static dk.dtu.compute.se.pisd.roborally.model.TestBoards.randomBoard;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryBoardTest {
+
+    private byte[] write(Board board) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryBoard.write(board, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Random random = new Random(4711);
+        for (int i = 0; i < 200; i++) {
+            Board board = randomBoard(random, "random");
+            Board read = BinaryBoard.read(ByteBuffer.wrap(write(board)), "random");
+            assertSameBoard(board, read);
+        }
+    }
+
+    @Test
+    void testInvalidFilesAreRejected() throws IOException {
+        byte[] bytes = write(randomBoard(new Random(1), "random"));
+
+        byte[] version = bytes.clone();
+        version[5] = 99;
+        IOException e = assertThrows(IOException.class, () -> BinaryBoard.read(ByteBuffer.wrap(version), "v"));
+        assertTrue(e.getMessage().contains("version"), "Unsupported version should be reported!");
+
+        byte[] magic = bytes.clone();
+        magic[0] = 'X';
+        assertThrows(IOException.class, () -> BinaryBoard.read(ByteBuffer.wrap(magic), "m"));
+
+        assertThrows(IOException.class, () -> BinaryBoard.read(ByteBuffer.wrap(bytes, 0, bytes.length - 3), "t"),
+                "Truncated board should be rejected!");
+    }
+
+    @Test
+    void testCompiledBoardMatchesJson(@TempDir Path directory) throws IOException {
+        String json;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("boards/defaultboard.json")) {
+            assertNotNull(in);
+            json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Files.writeString(directory.resolve("defaultboard.json"), json);
+
+        BoardCompiler.main(new String[] { directory.toString(), directory.resolve("out").toString() });
+        Path binary = directory.resolve("out").resolve("defaultboard." + BinaryBoard.BINARY_EXT);
+        assertTrue(Files.exists(binary), "Board should have been compiled!");
+
+        Board expected = LoadBoard.loadBoard(new StringReader(json), "defaultboard");
+        Board compiled = BinaryBoard.load(binary, "defaultboard");
+        assertSameBoard(expected, compiled);
+        assertNull(compiled.getNeighbour(compiled.getSpace(0, 0), Heading.SOUTH), "Layout should have been updated!");
+    }
+
+}
@@ -0,0 +1,88 @@
+package dk.dtu.compute.se.pisd.roborally.fileaccess;
+
+import dk.dtu.compute.se.pisd.roborally.controller.Checkpoint;
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardAtlasTest {
+
+    private byte[] compile(Board board) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryBoard.write(board, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private Board createBoard(int number) {
+        Board board = new Board(5 + number, 4 + number, "board" + number);
+        board.getSpace(number, 1).getWalls().add(Heading.EAST);
+        ConveyorBelt conveyorBelt = new ConveyorBelt(Heading.values()[number % 4]);
+        board.getSpace(1, number).getActions().add(conveyorBelt);
+        board.getSpace(2, 2).getActions().add(new Checkpoint(number));
+        return board;
+    }
+
+    @Test
+    void testBoardsAreLoadedLazily(@TempDir Path directory) throws IOException {
+        Map<String, byte[]> boards = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            boards.put("board" + i, compile(createBoard(i)));
+        }
+        Path path = directory.resolve(BoardAtlas.ATLAS_FILE);
+        BoardAtlas.write(boards, path);
+
+        BoardAtlas atlas = BoardAtlas.open(path);
+        assertEquals(boards.keySet(), atlas.getBoardNames());
+        assertEquals(0, atlas.getLoadedCount(), "No board should be loaded when the atlas is opened!");
+
+        Board board = atlas.createBoard("board7");
+        assertEquals(1, atlas.getLoadedCount(), "Only the requested board should be loaded!");
+        assertEquals("board7", board.boardName);
+        assertEquals(12, board.width);
+        assertEquals(11, board.height);
+        assertEquals(Heading.values()[7 % 4],
+                assertInstanceOf(ConveyorBelt.class, board.getSpace(1, 7).getActions().get(0)).getHeading());
+        assertEquals(7, board.getSpace(2, 2).getCheckpoint().getNumber());
+        assertNull(board.getNeighbour(board.getSpace(7, 1), Heading.EAST), "Wall should block the move!");
+
+        Board again = atlas.createBoard("board7");
+        assertNotSame(board, again);
+        assertSame(atlas.getLayout("board7"), atlas.getLayout("board7"), "Layout should be read only once!");
+        assertEquals(1, atlas.getLoadedCount());
+
+        assertNull(atlas.createBoard("board42"), "Unknown board should not be found!");
+    }
+
+    @Test
+    void testInvalidAtlasIsRejected(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve(BoardAtlas.ATLAS_FILE);
+        Files.write(path, new byte[] { 'R', 'R', 'B', 'F', 0, 1, 0, 0 });
+        assertThrows(IOException.class, () -> BoardAtlas.open(path));
+    }
+
+    @Test
+    void testResourcesAtlas() {
+        // the atlas is compiled by the build (process-classes)
+        BoardAtlas atlas = BoardAtlas.getDefault();
+        assertNotNull(atlas, "Atlas of the boards in the resources should exist!");
+        assertEquals(Set.of("defaultboard"), atlas.getBoardNames());
+
+        Board board = LoadBoard.loadBoard("defaultboard");
+        assertSame(atlas.getLayout("defaultboard").getWalls(0), board.getSpace(0, 0).getWalls(),
+                "Loaded board should share the layout of the atlas!");
+    }
+
+}
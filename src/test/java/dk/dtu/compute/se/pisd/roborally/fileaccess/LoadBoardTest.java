@@ -0,0 +1,154 @@
+package dk.dtu.compute.se.pisd.roborally.fileaccess;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import dk.dtu.compute.se.pisd.roborally.controller.Checkpoint;
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
+import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
+import dk.dtu.compute.se.pisd.roborally.fileaccess.model.*;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static dk.dtu.compute.se.pisd.roborally.model.TestBoards.assertSameBoard;
+import static dk.dtu.compute.se.pisd.roborally.model.TestBoards.randomBoard;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBoardTest {
+
+    private final Gson gson = new GsonBuilder().
+            registerTypeAdapter(ActionTemplate.class, new Adapter<ActionTemplate>()).create();
+
+    private void assertMatchesTemplate(BoardTemplate expected, Board actual) {
+        assertEquals(expected.width, actual.width);
+        assertEquals(expected.height, actual.height);
+        int spaces = 0;
+        for (SpaceTemplate template : expected.spaces) {
+            Space space = actual.getSpace(template.x, template.y);
+            assertEquals(template.walls, space.getWalls(), "Walls of space " + template.x + "," + template.y);
+            List<FieldAction> actions = space.getActions();
+            assertEquals(template.actions.size(), actions.size(), "Actions of space " + template.x + "," + template.y);
+            for (int i = 0; i < actions.size(); i++) {
+                if (template.actions.get(i) instanceof ConveyorBeltTemplate belt) {
+                    ConveyorBelt action = assertInstanceOf(ConveyorBelt.class, actions.get(i));
+                    assertEquals(belt.heading, action.getHeading());
+                } else {
+                    CheckPointTemplate checkpoint = (CheckPointTemplate) template.actions.get(i);
+                    Checkpoint action = assertInstanceOf(Checkpoint.class, actions.get(i));
+                    assertEquals(checkpoint.number, action.getNumber());
+                }
+            }
+            spaces++;
+        }
+        int nonEmpty = 0;
+        for (int x = 0; x < actual.width; x++) {
+            for (int y = 0; y < actual.height; y++) {
+                Space space = actual.getSpace(x, y);
+                if (!space.getWalls().isEmpty() || !space.getActions().isEmpty()) {
+                    nonEmpty++;
+                }
+            }
+        }
+        assertTrue(nonEmpty <= spaces, "Board should not have other walls or actions!");
+    }
+
+    @Test
+    void testDefaultBoard() {
+        BoardTemplate template = gson.fromJson(
+                IOUtil.readResource("boards/defaultboard.json"), BoardTemplate.class);
+
+        Board board = LoadBoard.loadBoard("defaultboard");
+        assertNotNull(board, "Default board should have been loaded!");
+        assertMatchesTemplate(template, board);
+        assertThrows(UnsupportedOperationException.class,
+                () -> board.getSpace(0, 0).getWalls().add(Heading.NORTH),
+                "Walls of loaded boards should not be changeable!");
+        assertThrows(UnsupportedOperationException.class,
+                () -> board.getSpace(0, 0).getActions().clear(),
+                "Actions of loaded boards should not be changeable!");
+    }
+
+    @Test
+    void testLargeBoard() throws IOException {
+        Random random = new Random(42);
+        BoardTemplate template = new BoardTemplate();
+        template.width = 120;
+        template.height = 80;
+        for (int x = 0; x < template.width; x++) {
+            for (int y = 0; y < template.height; y++) {
+                if (random.nextInt(3) == 0) {
+                    SpaceTemplate space = new SpaceTemplate();
+                    space.x = x;
+                    space.y = y;
+                    if (random.nextBoolean()) {
+                        space.walls.add(Heading.values()[random.nextInt(4)]);
+                    }
+                    if (random.nextBoolean()) {
+                        ConveyorBeltTemplate belt = new ConveyorBeltTemplate();
+                        belt.heading = Heading.values()[random.nextInt(4)];
+                        space.actions.add(belt);
+                    } else {
+                        CheckPointTemplate checkpoint = new CheckPointTemplate();
+                        checkpoint.number = random.nextInt(10);
+                        space.actions.add(checkpoint);
+                    }
+                    template.spaces.add(space);
+                }
+            }
+        }
+
+        Board board = LoadBoard.loadBoard(new StringReader(gson.toJson(template)), "large");
+        assertEquals("large", board.boardName);
+        assertMatchesTemplate(template, board);
+    }
+
+    @Test
+    void testSaveAndLoad(@TempDir Path directory) throws IOException {
+        Random random = new Random(2024);
+        for (int i = 0; i < 1000; i++) {
+            Board board = randomBoard(random, "generated");
+            Path path = directory.resolve("generated" + i + ".json");
+            LoadBoard.saveBoard(board, path);
+
+            Board loaded;
+            try (Reader reader = Files.newBufferedReader(path)) {
+                loaded = LoadBoard.loadBoard(reader, "generated");
+            }
+            assertSameBoard(board, loaded);
+
+            if (i % 100 == 0) {
+                // the files can still be read with the templates
+                BoardTemplate template = gson.fromJson(Files.readString(path), BoardTemplate.class);
+                assertMatchesTemplate(template, loaded);
+            }
+        }
+    }
+
+    @Test
+    void testUnusualOrder() throws IOException {
+        String json = "{ \"spaces\": [ { \"x\": 2, \"y\": 1, \"walls\": [\"EAST\"], \"actions\": [" +
+                "{ \"INSTANCE\": { \"heading\": \"NORTH\" }, " +
+                "\"CLASSNAME\": \"" + ConveyorBeltTemplate.class.getName() + "\" }, " +
+                "{ \"CLASSNAME\": \"some.unknown.Action\", \"INSTANCE\": { \"power\": 3 } } ] } ], " +
+                "\"width\": 4, \"height\": 3 }";
+
+        Board board = LoadBoard.loadBoard(new StringReader(json), "unusual");
+        assertEquals(4, board.width);
+        Space space = board.getSpace(2, 1);
+        assertEquals(List.of(Heading.EAST), space.getWalls());
+        assertEquals(1, space.getActions().size(), "Unknown action should have been ignored!");
+        assertEquals(Heading.NORTH, assertInstanceOf(ConveyorBelt.class, space.getActions().get(0)).getHeading());
+        assertNull(board.getNeighbour(space, Heading.EAST), "Layout should have been updated!");
+    }
+
+}
@@ -0,0 +1,87 @@
+package dk.dtu.compute.se.pisd.roborally.model;
+
+import dk.dtu.compute.se.pisd.roborally.controller.Checkpoint;
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
+import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boards and assertions on boards, which are shared by the tests of the
+ * classes creating, loading and saving boards.
+ */
+public final class TestBoards {
+
+    private TestBoards() {
+    }
+
+    /**
+     * Creates a board of a random size with random walls, conveyor belts
+     * (some of which do not have a heading) and checkpoints.
+     *
+     * @param random the random generator
+     * @param name the name of the board
+     * @return the board
+     */
+    public static Board randomBoard(Random random, String name) {
+        Board board = new Board(1 + random.nextInt(40), 1 + random.nextInt(40), name);
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                Space space = board.getSpace(x, y);
+                for (Heading heading : Heading.values()) {
+                    if (random.nextInt(6) == 0) {
+                        space.getWalls().add(heading);
+                    }
+                }
+                int actions = random.nextInt(5) == 0 ? 1 + random.nextInt(2) : 0;
+                for (int i = 0; i < actions; i++) {
+                    if (random.nextBoolean()) {
+                        int heading = random.nextInt(5);
+                        space.getActions().add(new ConveyorBelt(heading < 4 ? Heading.values()[heading] : null));
+                    } else {
+                        space.getActions().add(new Checkpoint(random.nextInt(1000)));
+                    }
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Asserts that the two boards have the same size, and the same walls
+     * (in any order) and field actions on each space.
+     *
+     * @param expected the expected board
+     * @param actual the actual board
+     */
+    public static void assertSameBoard(Board expected, Board actual) {
+        assertEquals(expected.width, actual.width, "Width of the board");
+        assertEquals(expected.height, actual.height, "Height of the board");
+        for (int x = 0; x < expected.width; x++) {
+            for (int y = 0; y < expected.height; y++) {
+                Space space = expected.getSpace(x, y);
+                Space other = actual.getSpace(x, y);
+                for (Heading heading : Heading.values()) {
+                    assertEquals(space.getWalls().contains(heading), other.getWalls().contains(heading),
+                            "Wall " + heading + " of space " + x + "," + y);
+                }
+                assertEquals(space.getActions().size(), other.getActions().size(), "Actions of space " + x + "," + y);
+                for (int i = 0; i < space.getActions().size(); i++) {
+                    FieldAction action = space.getActions().get(i);
+                    FieldAction otherAction = other.getActions().get(i);
+                    assertEquals(action.getClass(), otherAction.getClass(), "Action of space " + x + "," + y);
+                    if (action instanceof ConveyorBelt conveyorBelt) {
+                        assertEquals(conveyorBelt.getHeading(), ((ConveyorBelt) otherAction).getHeading(),
+                                "Heading of conveyor belt on space " + x + "," + y);
+                    } else if (action instanceof Checkpoint checkpoint) {
+                        assertEquals(checkpoint.getNumber(), ((Checkpoint) otherAction).getNumber(),
+                                "Number of checkpoint on space " + x + "," + y);
+                    }
+                }
+            }
+        }
+    }
+
+}